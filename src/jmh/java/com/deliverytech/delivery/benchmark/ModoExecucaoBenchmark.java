@@ -0,0 +1,101 @@
+package com.deliverytech.delivery.benchmark;
+
+import com.deliverytech.delivery.DeliveryApiApplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// Compara vazão e latência (p99 no modo SampleTime) entre o pool de threads de plataforma
+// do Tomcat e o modo com threads virtuais + limitador de conexões, sob 64 clientes concorrentes.
+// Usa os dados iniciais das migrações (restaurante 1, produtos 1 a 3, cliente 1). Uma resposta fora de 2xx
+// interrompe a medição: erros rápidos seriam contados como requisições bem-sucedidas.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class ModoExecucaoBenchmark {
+
+    private static final String CORPO_PEDIDO = """
+            {"enderecoEntrega": "Rua Benchmark, 3",
+             "cliente": {"id": 1}, "restaurante": {"id": 1},
+             "itens": [{"produto": {"id": 1}, "quantidade": 1}, {"produto": {"id": 3}, "quantidade": 2}]}
+            """;
+
+    @Param({"false", "true"})
+    public boolean threadsVirtuais;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient httpClient;
+    private URI uriCardapio;
+    private URI uriPedidos;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        contexto = new SpringApplicationBuilder(DeliveryApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + threadsVirtuais,
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-modo;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        int porta = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+        uriCardapio = URI.create("http://localhost:" + porta + "/api/produtos/restaurante/1");
+        uriPedidos = URI.create("http://localhost:" + porta + "/api/pedidos");
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int cardapioPorRestaurante() throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(uriCardapio).GET().build();
+        return enviar(requisicao);
+    }
+
+    @Benchmark
+    public int criarPedido() throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(uriPedidos)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(CORPO_PEDIDO))
+                .build();
+        return enviar(requisicao);
+    }
+
+    private int enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+        int status = httpClient.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException(requisicao.method() + " " + requisicao.uri() + " respondeu " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,61 @@
+package com.deliverytech.delivery.benchmark;
+
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Cálculo de valores do pedido em memória (Pedido.calcularValorTotal e ItemPedido.calcularSubtotal)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoCalculoBenchmark {
+
+    @Param({"1", "10", "30"})
+    public int tamanhoCesta;
+
+    private Pedido pedido;
+    private ItemPedido item;
+
+    @Setup
+    public void iniciar() {
+        pedido = new Pedido();
+        pedido.setTaxaEntrega(new BigDecimal("5.00"));
+        pedido.setValorDesconto(new BigDecimal("2.50"));
+        for (int i = 0; i < tamanhoCesta; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            pedido.adicionarItem(new ItemPedido(produto, i + 1, new BigDecimal("12.90")));
+        }
+        item = pedido.getItens().get(0);
+    }
+
+    @Benchmark
+    public BigDecimal calcularValorTotal() {
+        pedido.calcularValorTotal();
+        return pedido.getValorTotal();
+    }
+
+    @Benchmark
+    public BigDecimal calcularSubtotal() {
+        item.calcularSubtotal();
+        return item.getSubtotal();
+    }
+}
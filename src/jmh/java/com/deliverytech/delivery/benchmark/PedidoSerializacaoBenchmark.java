@@ -0,0 +1,71 @@
+package com.deliverytech.delivery.benchmark;
+
+import com.deliverytech.delivery.dto.PedidoResponse;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Serialização JSON de um Pedido no formato devolvido pela API (PedidoResponse)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoSerializacaoBenchmark {
+
+    @Param({"1", "10", "30"})
+    public int tamanhoCesta;
+
+    private ObjectMapper objectMapper;
+    private Pedido pedido;
+
+    @Setup
+    public void iniciar() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        Cliente cliente = new Cliente("Cliente Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1");
+        cliente.setId(1L);
+        Restaurante restaurante = new Restaurante("Restaurante Benchmark", "Benchmark", "Rua Benchmark, 2",
+                "(11) 3000-0000", new BigDecimal("5.00"));
+        restaurante.setId(1L);
+
+        pedido = new Pedido(cliente, restaurante, "Rua Benchmark, 3");
+        pedido.setId(1L);
+        pedido.setNumeroPedido("PEDBENCH");
+        pedido.setTaxaEntrega(restaurante.getTaxaEntrega());
+        for (int i = 0; i < tamanhoCesta; i++) {
+            Produto produto = new Produto("Produto " + i, "Produto de benchmark", new BigDecimal("12.90"), "Benchmark", restaurante);
+            produto.setId((long) i + 1);
+            ItemPedido item = new ItemPedido(produto, 2, produto.getPreco());
+            item.setId((long) i + 1);
+            pedido.adicionarItem(item);
+        }
+    }
+
+    @Benchmark
+    public String serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(PedidoResponse.de(pedido));
+    }
+}
@@ -0,0 +1,98 @@
+package com.deliverytech.delivery.benchmark;
+
+import com.deliverytech.delivery.DeliveryApiApplication;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+import com.deliverytech.delivery.service.PedidoService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Criação de pedidos (PedidoService.salvar) contra o H2 embarcado, por tamanho de cesta
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PedidoServiceBenchmark {
+
+    @Param({"1", "10", "30"})
+    public int tamanhoCesta;
+
+    private ConfigurableApplicationContext contexto;
+    private PedidoService pedidoService;
+    private Pedido pedido;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        contexto = new SpringApplicationBuilder(DeliveryApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        pedidoService = contexto.getBean(PedidoService.class);
+
+        Cliente cliente = contexto.getBean(ClienteRepository.class).save(
+                new Cliente("Cliente Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1"));
+
+        Restaurante restaurante = new Restaurante("Restaurante Benchmark", "Benchmark", "Rua Benchmark, 2",
+                "(11) 3000-0000", new BigDecimal("5.00"));
+        restaurante.setAvaliacao(new BigDecimal("4.5"));
+        restaurante = contexto.getBean(RestauranteRepository.class).save(restaurante);
+
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < tamanhoCesta; i++) {
+            produtos.add(new Produto("Produto " + i, "Produto de benchmark", new BigDecimal("10.00").add(BigDecimal.valueOf(i)),
+                    "Benchmark", restaurante));
+        }
+        produtos = contexto.getBean(ProdutoRepository.class).saveAll(produtos);
+
+        pedido = new Pedido(cliente, restaurante, "Rua Benchmark, 3");
+        pedido.setNumeroPedido("PEDBENCH");
+        for (Produto produto : produtos) {
+            ItemPedido item = new ItemPedido();
+            item.setProduto(produto);
+            item.setQuantidade(2);
+            pedido.getItens().add(item);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Pedido salvar() {
+        return pedidoService.salvar(pedido);
+    }
+}
@@ -0,0 +1,10 @@
+package com.deliverytech.delivery.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tarefas periódicas (@Scheduled): gravação das baixas de estoque e expiração de reservas
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
@@ -0,0 +1,92 @@
+package com.deliverytech.delivery.config;
+
+import com.deliverytech.delivery.dto.EstatisticasCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+// Regiões do cache de segundo nível do Hibernate (JCache sobre Caffeine), criadas aqui com tamanho máximo e
+// validade próprios (delivery.cache.segundo-nivel.<região>.*) e entregues ao Hibernate já prontas.
+// Entidades: restaurantes, produtos e clientes (READ_WRITE, atualizadas pelas escritas da sessão no commit).
+// Consultas marcadas como cacheáveis ficam na região "consultas", invalidada pelas alterações nas tabelas
+// que elas leem; a região de marcas de tempo dessas alterações não expira nem tem limite.
+@Component
+public class CacheSegundoNivel implements HibernatePropertiesCustomizer, MeterBinder {
+
+    private static final String PREFIXO = "delivery.cache.segundo-nivel.";
+
+    private final CacheManager gerenciador;
+    // Nome de exibição (métricas e estatísticas) -> cache Caffeine por trás da região
+    private final Map<String, Cache<?, ?>> regioes = new LinkedHashMap<>();
+
+    public CacheSegundoNivel(Environment environment) {
+        this.gerenciador = new CaffeineCachingProvider().getCacheManager();
+        criar(environment, "restaurantes", "restaurantes", 1_000, Duration.ofMinutes(30));
+        criar(environment, "produtos", "produtos", 10_000, Duration.ofMinutes(30));
+        criar(environment, "clientes", "clientes", 10_000, Duration.ofMinutes(10));
+        criar(environment, "consultas", RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                1_000, Duration.ofMinutes(5));
+
+        CaffeineConfiguration<Object, Object> marcasDeTempo = new CaffeineConfiguration<>();
+        marcasDeTempo.setStoreByValue(false);
+        gerenciador.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, marcasDeTempo);
+    }
+
+    private void criar(Environment environment, String nome, String regiao, long tamanhoPadrao,
+                       Duration expiracaoPadrao) {
+        long tamanhoMaximo = environment.getProperty(PREFIXO + nome + ".tamanho-maximo", Long.class, tamanhoPadrao);
+        Duration expiracao = environment.getProperty(PREFIXO + nome + ".expiracao", Duration.class, expiracaoPadrao);
+
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+        configuracao.setExpireAfterWrite(OptionalLong.of(expiracao.toNanos()));
+        // O Hibernate guarda o estado já desmontado da entidade: sem cópia a cada leitura
+        configuracao.setStoreByValue(false);
+        configuracao.setNativeStatisticsEnabled(true);
+        regioes.put(nome, gerenciador.createCache(regiao, configuracao).unwrap(Cache.class));
+    }
+
+    @Override
+    public void customize(Map<String, Object> propriedades) {
+        propriedades.put(ConfigSettings.CACHE_MANAGER, gerenciador);
+    }
+
+    // Publica os contadores de cada região como métricas cache.* (cache=restaurantes, produtos, ...)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        regioes.forEach((nome, cache) -> CaffeineCacheMetrics.monitor(registry, cache, nome));
+    }
+
+    public Map<String, EstatisticasCache> estatisticas() {
+        Map<String, EstatisticasCache> estatisticas = new LinkedHashMap<>();
+        regioes.forEach((nome, cache) -> {
+            CacheStats stats = cache.stats();
+            estatisticas.put(nome, new EstatisticasCache(
+                    cache.estimatedSize(),
+                    stats.hitCount(),
+                    stats.missCount(),
+                    stats.evictionCount(),
+                    stats.hitRate()));
+        });
+        return estatisticas;
+    }
+}
@@ -0,0 +1,28 @@
+package com.deliverytech.delivery.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Conta os statements SQL emitidos pelo Hibernate na thread da requisição corrente
+public class ContadorSqlInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] contador = CONTADOR.get();
+        if (contador != null) {
+            contador[0]++;
+        }
+        return sql;
+    }
+
+    public static void iniciar() {
+        CONTADOR.set(new int[1]);
+    }
+
+    public static int finalizar() {
+        int[] contador = CONTADOR.get();
+        CONTADOR.remove();
+        return contador != null ? contador[0] : 0;
+    }
+}
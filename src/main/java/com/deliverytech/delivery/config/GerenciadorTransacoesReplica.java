@@ -0,0 +1,33 @@
+package com.deliverytech.delivery.config;
+
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Transações somente leitura podem ser atendidas pela réplica, que pode estar atrasada. O cache de segundo
+// nível e o de consultas são compartilhados com as transações de escrita (ex.: o preço do Produto usado pelo
+// MontadorPedido), então nessas sessões o cache só é lido (CacheMode.GET): nada lido da réplica entra nele.
+// Transações iniciadas dentro de LeituraPrimario vão ao primário e continuam alimentando o cache.
+public class GerenciadorTransacoesReplica extends JpaTransactionManager {
+
+    public GerenciadorTransacoesReplica(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly() && !LeituraPrimario.ativa()) {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.deliverytech.delivery.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricasConfig {
+
+    // Registra o contador de SQL por requisição no Hibernate
+    @Bean
+    public HibernatePropertiesCustomizer contadorSqlHibernate() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSqlInspector());
+    }
+}
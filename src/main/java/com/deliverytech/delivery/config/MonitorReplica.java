@@ -0,0 +1,93 @@
+package com.deliverytech.delivery.config;
+
+import com.deliverytech.delivery.enums.PoliticaAtrasoReplica;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Decide se a réplica pode atender as transações somente leitura. A cada verificação grava a hora atual em
+// controle_replicacao no primário e lê a mesma linha na réplica: a diferença é o atraso da replicação
+// (com a resolução do intervalo de verificação). Réplica fora do ar, atrasada além do limite ou ainda não
+// verificada fica de fora até a próxima verificação, e as leituras vão para o primário.
+public class MonitorReplica implements MeterBinder {
+
+    private final JdbcTemplate primario;
+    private final JdbcTemplate replica;
+    private final PoliticaAtrasoReplica politica;
+    private final long atrasoMaximoMillis;
+
+    private volatile boolean disponivel;
+    private volatile long atrasoMillis = -1;
+
+    private final AtomicLong leiturasReplica = new AtomicLong();
+    private final AtomicLong leiturasPrimario = new AtomicLong();
+
+    public MonitorReplica(DataSource primario, DataSource replica, PoliticaAtrasoReplica politica,
+                          Duration atrasoMaximo) {
+        this.primario = new JdbcTemplate(primario);
+        this.replica = new JdbcTemplate(replica);
+        this.politica = politica;
+        this.atrasoMaximoMillis = atrasoMaximo.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.datasource.replica.intervalo-verificacao:1s}")
+    public void verificar() {
+        try {
+            if (politica == PoliticaAtrasoReplica.IGNORAR) {
+                replica.queryForObject("SELECT 1", Integer.class);
+                disponivel = true;
+                return;
+            }
+            LocalDateTime agora = LocalDateTime.now();
+            primario.update("UPDATE controle_replicacao SET marcado_em = ? WHERE id = 1", agora);
+            LocalDateTime naReplica = replica.queryForObject(
+                    "SELECT marcado_em FROM controle_replicacao WHERE id = 1", LocalDateTime.class);
+            // Outra instância pode ter gravado uma marca mais nova que a desta verificação
+            atrasoMillis = Math.max(0, Duration.between(naReplica, agora).toMillis());
+            disponivel = atrasoMillis <= atrasoMaximoMillis;
+        } catch (DataAccessException e) {
+            disponivel = false;
+        }
+    }
+
+    // Chamado na escolha do banco de cada transação somente leitura
+    public boolean usarReplica() {
+        if (disponivel) {
+            leiturasReplica.incrementAndGet();
+            return true;
+        }
+        leiturasPrimario.incrementAndGet();
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.datasource.replica.disponivel", this, monitor -> monitor.disponivel ? 1 : 0)
+                .description("Réplica em uso pelas transações somente leitura (1) ou não (0)")
+                .register(registry);
+        Gauge.builder("delivery.datasource.replica.atraso", this,
+                        monitor -> monitor.atrasoMillis < 0 ? Double.NaN : monitor.atrasoMillis / 1000.0)
+                .baseUnit("seconds")
+                .description("Atraso da réplica na última verificação")
+                .register(registry);
+        FunctionCounter.builder("delivery.datasource.leituras", leiturasReplica, AtomicLong::doubleValue)
+                .tag("destino", "replica")
+                .description("Transações somente leitura por banco de destino")
+                .register(registry);
+        FunctionCounter.builder("delivery.datasource.leituras", leiturasPrimario, AtomicLong::doubleValue)
+                .tag("destino", "primario")
+                .description("Transações somente leitura por banco de destino")
+                .register(registry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.deliverytech.delivery.config;
+
+import com.deliverytech.delivery.enums.PoliticaAtrasoReplica;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Réplica de leitura (ativada por delivery.datasource.replica.jdbc-url). Substitui o DataSource único do
+// Spring Boot por dois pools Hikari, primário (spring.datasource.*) e réplica (delivery.datasource.replica.*),
+// atrás de um roteamento que manda as transações somente leitura para a réplica. Os pools são beans próprios
+// para que o limitador de conexões das threads virtuais envolva cada um deles; por isso são injetados como
+// DataSource, e não como HikariDataSource. O Flyway e as escritas usam sempre o primário, e as sessões que
+// podem ler da réplica não gravam no cache de segundo nível (GerenciadorTransacoesReplica).
+@Configuration
+@ConditionalOnProperty(name = "delivery.datasource.replica.jdbc-url")
+public class ReplicaLeituraConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("delivery.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(
+            @Qualifier("primarioDataSource") DataSource primario,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${delivery.datasource.replica.politica-atraso:USAR_PRIMARIO}") PoliticaAtrasoReplica politica,
+            @Value("${delivery.datasource.replica.atraso-maximo:5s}") Duration atrasoMaximo) {
+        return new MonitorReplica(primario, replica, politica, atrasoMaximo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 MonitorReplica monitor) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoLeituraDataSource(primario, replica, monitor));
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new GerenciadorTransacoesReplica(entityManagerFactory);
+    }
+}
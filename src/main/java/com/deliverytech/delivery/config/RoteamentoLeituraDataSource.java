@@ -0,0 +1,36 @@
+package com.deliverytech.delivery.config;
+
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Envia as transações somente leitura (@Transactional(readOnly = true)) à réplica, quando o MonitorReplica
+// a considera em dia, e todo o resto ao primário. Precisa ficar atrás de um LazyConnectionDataSourceProxy:
+// o gerenciador de transações pede a conexão antes de marcar a transação como somente leitura, e o proxy
+// adia a escolha até a primeira consulta.
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARIO = "primario";
+    private static final String REPLICA = "replica";
+
+    private final MonitorReplica monitor;
+
+    public RoteamentoLeituraDataSource(DataSource primario, DataSource replica, MonitorReplica monitor) {
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || LeituraPrimario.ativa()) {
+            return PRIMARIO;
+        }
+        return monitor.usarReplica() ? REPLICA : PRIMARIO;
+    }
+}
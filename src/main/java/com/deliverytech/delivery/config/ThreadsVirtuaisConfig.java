@@ -0,0 +1,34 @@
+package com.deliverytech.delivery.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+// Modo de execução com threads virtuais (spring.threads.virtual.enabled=true).
+// O Spring Boot passa a atender as requisições do Tomcat em threads virtuais; aqui o pool
+// Hikari é envolvido por um limitador do mesmo tamanho para conter a concorrência no banco.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public static BeanPostProcessor limitadorConexoes(Environment environment) {
+        Duration esperaMaxima = environment.getProperty(
+                "delivery.datasource.limitador.espera-maxima", Duration.class, Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new LimitadorConexoesDataSource(hikari, hikari.getMaximumPoolSize(), esperaMaxima);
+                }
+                return bean;
+            }
+        };
+    }
+}
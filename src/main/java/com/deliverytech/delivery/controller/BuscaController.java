@@ -0,0 +1,29 @@
+package com.deliverytech.delivery.controller;
+
+import com.deliverytech.delivery.dto.Sugestao;
+import com.deliverytech.delivery.service.SugestoesBusca;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/busca")
+@CrossOrigin(origins = "*")
+public class BuscaController {
+
+    private final SugestoesBusca sugestoesBusca;
+
+    public BuscaController(SugestoesBusca sugestoesBusca) {
+        this.sugestoesBusca = sugestoesBusca;
+    }
+
+    // Autocompletar: produtos, restaurantes e categorias que começam com o prefixo, dos mais populares
+    @GetMapping("/sugestoes")
+    public ResponseEntity<List<Sugestao>> sugestoes(
+            @RequestParam String prefixo,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(sugestoesBusca.sugerir(prefixo, limite));
+    }
+}
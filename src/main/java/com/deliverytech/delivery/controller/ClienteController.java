@@ -1,5 +1,6 @@
 package com.deliverytech.delivery.controller;
 
+import com.deliverytech.delivery.dto.PaginaCursor;
 import com.deliverytech.delivery.entity.Cliente;
 import com.deliverytech.delivery.service.ClienteService;
 
@@ -23,9 +24,15 @@ public class ClienteController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Cliente>> listarTodos() {
-        List<Cliente> clientes = clienteService.listarTodos();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<PaginaCursor<Cliente>> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        try {
+            return ResponseEntity.ok(clienteService.listarPagina(cursor, limite, incluirTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/ativos")
@@ -3,12 +3,21 @@ package com.deliverytech.delivery.controller;
 import java.time.LocalDateTime;
 import java.util.Map;
 
+import com.deliverytech.delivery.config.CacheSegundoNivel;
+import com.deliverytech.delivery.dto.EstatisticasCache;
+
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class HealthController {
 
+    private final CacheSegundoNivel cacheSegundoNivel;
+
+    public HealthController(CacheSegundoNivel cacheSegundoNivel) {
+        this.cacheSegundoNivel = cacheSegundoNivel;
+    }
+
     @GetMapping("/health")
     public Map<String, String> health() {
         return Map.of(
@@ -30,6 +39,12 @@ public class HealthController {
         );
     }
 
+    // Contadores de cada região do cache de segundo nível (entidades e consultas)
+    @GetMapping("/cache/segundo-nivel")
+    public Map<String, EstatisticasCache> cacheSegundoNivel() {
+        return cacheSegundoNivel.estatisticas();
+    }
+
     // Record para demonstrar recurso do Java 14+ (disponível no JDK 21)
     public record AppInfo(
         String application,
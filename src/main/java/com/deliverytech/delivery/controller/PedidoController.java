@@ -1,16 +1,38 @@
 package com.deliverytech.delivery.controller;
 
+import com.deliverytech.delivery.dto.HistoricoStatusResponse;
+import com.deliverytech.delivery.dto.PaginaCursor;
+import com.deliverytech.delivery.dto.PedidoResponse;
+import com.deliverytech.delivery.dto.ResultadoImportacao;
 import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.service.BarramentoEventosPedido;
+import com.deliverytech.delivery.service.IdempotenciaPedidos;
+import com.deliverytech.delivery.service.PedidoExportacaoService;
+import com.deliverytech.delivery.service.PedidoImportacaoService;
 import com.deliverytech.delivery.service.PedidoService;
+import com.deliverytech.delivery.enums.FormatoExportacao;
 import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exception.ConflitoStatusPedidoException;
+import com.deliverytech.delivery.exception.EstoqueInsuficienteException;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/pedidos")
@@ -18,38 +40,135 @@ import java.util.List;
 public class PedidoController {
     
     private final PedidoService pedidoService;
+    private final PedidoExportacaoService pedidoExportacaoService;
+    private final PedidoImportacaoService pedidoImportacaoService;
+    private final BarramentoEventosPedido barramentoEventos;
+    private final IdempotenciaPedidos idempotencia;
     
-    public PedidoController(PedidoService pedidoService) {
+    public PedidoController(PedidoService pedidoService,
+                            PedidoExportacaoService pedidoExportacaoService,
+                            PedidoImportacaoService pedidoImportacaoService,
+                            BarramentoEventosPedido barramentoEventos,
+                            IdempotenciaPedidos idempotencia) {
         this.pedidoService = pedidoService;
+        this.pedidoExportacaoService = pedidoExportacaoService;
+        this.pedidoImportacaoService = pedidoImportacaoService;
+        this.barramentoEventos = barramentoEventos;
+        this.idempotencia = idempotencia;
     }
     
     @GetMapping
-    public ResponseEntity<List<Pedido>> listarTodos() {
-        List<Pedido> pedidos = pedidoService.listarTodos();
-        return ResponseEntity.ok(pedidos);
+    public ResponseEntity<PaginaCursor<PedidoResponse>> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        try {
+            PaginaCursor<Pedido> pagina = pedidoService.listarPagina(cursor, limite, incluirTotal);
+            return ResponseEntity.ok(pagina.map(PedidoResponse::de));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Mais recentes primeiro pelo número do pedido; proximoCursor é o número a passar em antesDe
+    @GetMapping("/recentes")
+    public ResponseEntity<PaginaCursor<PedidoResponse>> listarRecentes(
+            @RequestParam(required = false) String antesDe,
+            @RequestParam(required = false) Integer limite) {
+        PaginaCursor<Pedido> pagina = pedidoService.listarPorNumero(antesDe, limite);
+        return ResponseEntity.ok(pagina.map(PedidoResponse::de));
+    }
+    
+    // Eventos de status em tempo real (SSE); sem restauranteId recebe os eventos de todos os restaurantes
+    @GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinarEventos(@RequestParam(required = false) Long restauranteId) {
+        return barramentoEventos.assinar(restauranteId);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Pedido> buscarPorId(@PathVariable Long id) {
+    public ResponseEntity<PedidoResponse> buscarPorId(@PathVariable Long id) {
         return pedidoService.buscarPorId(id)
-                .map(pedido -> ResponseEntity.ok().body(pedido))
+                .map(pedido -> ResponseEntity.ok().body(PedidoResponse.de(pedido)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/{id}/historico")
+    public ResponseEntity<List<HistoricoStatusResponse>> buscarHistorico(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(HistoricoStatusResponse.de(pedidoService.buscarHistorico(id)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Com Idempotency-Key, uma nova tentativa com a mesma chave devolve o pedido criado pela primeira
+    // (mesmo status e corpo, com o cabeçalho Idempotent-Replayed) em vez de criar outro
     @PostMapping
-    public ResponseEntity<Pedido> criar(@RequestBody Pedido pedido) {
+    public ResponseEntity<PedidoResponse> criar(@RequestBody Pedido pedido,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        try {
+            if (chaveIdempotencia != null) {
+                Optional<PedidoResponse> original = idempotencia.buscar(chaveIdempotencia);
+                if (original.isPresent()) {
+                    return repeticao(original.get());
+                }
+            }
+            Pedido novoPedido = pedidoService.salvar(pedido, chaveIdempotencia);
+            return ResponseEntity.status(HttpStatus.CREATED).body(PedidoResponse.de(novoPedido));
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição com a mesma chave criou o pedido antes desta, ou o número do pedido já existe
+            return Optional.ofNullable(chaveIdempotencia)
+                    .flatMap(idempotencia::buscar)
+                    .map(this::repeticao)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+        } catch (PessimisticLockingFailureException e) {
+            // A requisição com a mesma chave ainda não terminou (a gravação da chave esperou além do limite
+            // de trava do banco): nova tentativa depois devolve o pedido dela
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (EstoqueInsuficienteException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    private ResponseEntity<PedidoResponse> repeticao(PedidoResponse original) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", "true")
+                .body(original);
+    }
+    
+    // Criação de pedidos em lote (importação de marketplaces): uma transação para o lote inteiro
+    @PostMapping("/lote")
+    public ResponseEntity<List<PedidoResponse>> criarLote(@RequestBody List<Pedido> pedidos) {
         try {
-            Pedido novoPedido = pedidoService.salvar(pedido);
-            return ResponseEntity.status(HttpStatus.CREATED).body(novoPedido);
+            List<Pedido> novosPedidos = pedidoService.salvarLote(pedidos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(PedidoResponse.de(novosPedidos));
+        } catch (EstoqueInsuficienteException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
+    
+    // Importação de pedidos em NDJSON (um pedido por linha), gravada em blocos; retorna o resultado de cada linha
+    @PostMapping(path = "/importar", consumes = "application/x-ndjson")
+    public ResponseEntity<ResultadoImportacao> importar(InputStream corpo) {
+        try {
+            return ResponseEntity.ok(pedidoImportacaoService.importar(corpo));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
-    public ResponseEntity<Pedido> atualizar(@PathVariable Long id, @RequestBody Pedido pedido) {
+    public ResponseEntity<PedidoResponse> atualizar(@PathVariable Long id, @RequestBody Pedido pedido) {
         try {
             Pedido pedidoAtualizado = pedidoService.atualizar(id, pedido);
-            return ResponseEntity.ok(pedidoAtualizado);
+            return ResponseEntity.ok(PedidoResponse.de(pedidoAtualizado));
+        } catch (ConflitoStatusPedidoException | ObjectOptimisticLockingFailureException e) {
+            // Transição inválida ou pedido alterado por outro processo entre a leitura e a gravação (@Version)
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -69,36 +188,40 @@ public class PedidoController {
     
     // Endpoints específicos do negócio
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<Pedido>> buscarPorCliente(@PathVariable Long clienteId) {
+    public ResponseEntity<List<PedidoResponse>> buscarPorCliente(@PathVariable Long clienteId) {
         List<Pedido> pedidos = pedidoService.buscarPorClienteId(clienteId);
-        return ResponseEntity.ok(pedidos);
+        return ResponseEntity.ok(PedidoResponse.de(pedidos));
     }
     
     @GetMapping("/restaurante/{restauranteId}")
-    public ResponseEntity<List<Pedido>> buscarPorRestaurante(@PathVariable Long restauranteId) {
+    public ResponseEntity<List<PedidoResponse>> buscarPorRestaurante(@PathVariable Long restauranteId) {
         List<Pedido> pedidos = pedidoService.buscarPorRestauranteId(restauranteId);
-        return ResponseEntity.ok(pedidos);
+        return ResponseEntity.ok(PedidoResponse.de(pedidos));
+    }
+    
+    @GetMapping("/restaurante/{restauranteId}/ativos")
+    public ResponseEntity<List<PedidoResponse>> buscarAtivosPorRestaurante(@PathVariable Long restauranteId) {
+        return ResponseEntity.ok(pedidoService.buscarPedidosAtivosPorRestaurante(restauranteId));
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Pedido>> buscarPorStatus(@PathVariable String status) {
+    public ResponseEntity<List<PedidoResponse>> buscarPorStatus(@PathVariable String status) {
         try {
             StatusPedido statusEnum = StatusPedido.valueOf(status.toUpperCase());
             List<Pedido> pedidos = pedidoService.buscarPorStatus(statusEnum);
-            return ResponseEntity.ok(pedidos);
+            return ResponseEntity.ok(PedidoResponse.de(pedidos));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @GetMapping("/ativos")
-    public ResponseEntity<List<Pedido>> buscarPedidosAtivos() {
-        List<Pedido> pedidos = pedidoService.buscarPedidosAtivos();
-        return ResponseEntity.ok(pedidos);
+    public ResponseEntity<List<PedidoResponse>> buscarPedidosAtivos() {
+        return ResponseEntity.ok(pedidoService.buscarPedidosAtivos());
     }
     
     @GetMapping("/periodo")
-    public ResponseEntity<List<Pedido>> buscarPorPeriodo(
+    public ResponseEntity<List<PedidoResponse>> buscarPorPeriodo(
             @RequestParam String inicio,
             @RequestParam String fim) {
         try {
@@ -107,52 +230,88 @@ public class PedidoController {
             LocalDateTime dataFim = LocalDateTime.parse(fim, formatter);
             
             List<Pedido> pedidos = pedidoService.buscarPorPeriodo(dataInicio, dataFim);
-            return ResponseEntity.ok(pedidos);
+            return ResponseEntity.ok(PedidoResponse.de(pedidos));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Exportação de pedidos por período em streaming (NDJSON ou CSV)
+    @GetMapping("/periodo/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarPorPeriodo(
+            @RequestParam String inicio,
+            @RequestParam String fim,
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+            LocalDateTime dataInicio = LocalDateTime.parse(inicio, formatter);
+            LocalDateTime dataFim = LocalDateTime.parse(fim, formatter);
+            FormatoExportacao formatoExportacao = FormatoExportacao.valueOf(formato.toUpperCase());
+
+            MediaType tipo = formatoExportacao == FormatoExportacao.CSV
+                    ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                    : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+            String arquivo = "pedidos." + formatoExportacao.name().toLowerCase();
+
+            StreamingResponseBody corpo = saida ->
+                    pedidoExportacaoService.exportar(dataInicio, dataFim, formatoExportacao, saida);
+            return ResponseEntity.ok()
+                    .contentType(tipo)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                    .body(corpo);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
-    // Ações específicas
+    // Ações específicas (409 quando o pedido não está em um status que permita a transição)
     @PatchMapping("/{id}/confirmar")
-    public ResponseEntity<Pedido> confirmarPedido(@PathVariable Long id) {
+    public ResponseEntity<PedidoResponse> confirmarPedido(@PathVariable Long id) {
         try {
             Pedido pedido = pedidoService.confirmarPedido(id);
-            return ResponseEntity.ok(pedido);
+            return ResponseEntity.ok(PedidoResponse.de(pedido));
+        } catch (ConflitoStatusPedidoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
     @PatchMapping("/{id}/cancelar")
-    public ResponseEntity<Pedido> cancelarPedido(@PathVariable Long id, @RequestBody(required = false) String motivo) {
+    public ResponseEntity<PedidoResponse> cancelarPedido(@PathVariable Long id, @RequestBody(required = false) String motivo) {
         try {
             String motivoCancelamento = motivo != null ? motivo : "Cancelado pelo cliente";
             Pedido pedido = pedidoService.cancelarPedido(id, motivoCancelamento);
-            return ResponseEntity.ok(pedido);
+            return ResponseEntity.ok(PedidoResponse.de(pedido));
+        } catch (ConflitoStatusPedidoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
     @PatchMapping("/{id}/entregar")
-    public ResponseEntity<Pedido> entregarPedido(@PathVariable Long id) {
+    public ResponseEntity<PedidoResponse> entregarPedido(@PathVariable Long id) {
         try {
             Pedido pedido = pedidoService.entregarPedido(id);
-            return ResponseEntity.ok(pedido);
+            return ResponseEntity.ok(PedidoResponse.de(pedido));
+        } catch (ConflitoStatusPedidoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Pedido> atualizarStatus(@PathVariable Long id, @RequestParam String status) {
+    public ResponseEntity<PedidoResponse> atualizarStatus(@PathVariable Long id, @RequestParam String status) {
         try {
             StatusPedido novoStatus = StatusPedido.valueOf(status.toUpperCase());
             Pedido pedido = pedidoService.atualizarStatus(id, novoStatus);
-            return ResponseEntity.ok(pedido);
+            return ResponseEntity.ok(PedidoResponse.de(pedido));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (ConflitoStatusPedidoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -7,6 +7,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.deliverytech.delivery.dto.EstatisticasCache;
+import com.deliverytech.delivery.dto.EstoqueProduto;
+import com.deliverytech.delivery.dto.PaginaCursor;
 import com.deliverytech.delivery.entity.Produto;
 import com.deliverytech.delivery.service.ProdutoService;
 
@@ -22,9 +25,15 @@ public class ProdutoController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Produto>> listarTodos() {
-        List<Produto> produtos = produtoService.listarTodos();
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<PaginaCursor<Produto>> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        try {
+            return ResponseEntity.ok(produtoService.listarPagina(cursor, limite, incluirTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/ativos")
@@ -115,6 +124,18 @@ public class ProdutoController {
         return ResponseEntity.ok(categorias);
     }
     
+    // Contadores do cache de cardápio (acertos, falhas e remoções)
+    @GetMapping("/cache/estatisticas")
+    public ResponseEntity<EstatisticasCache> estatisticasCardapio() {
+        return ResponseEntity.ok(produtoService.estatisticasCardapio());
+    }
+    
+    // Quantidade disponível para novos pedidos (estoque menos reservas em aberto)
+    @GetMapping("/{id}/estoque")
+    public ResponseEntity<EstoqueProduto> consultarEstoque(@PathVariable Long id) {
+        return ResponseEntity.ok(produtoService.consultarEstoque(id));
+    }
+    
     @PostMapping
     public ResponseEntity<Produto> cadastrar(@RequestBody Produto produto) {
         Produto novoProduto = produtoService.salvar(produto);
@@ -123,6 +144,10 @@ public class ProdutoController {
     
     @PutMapping("/{id}")
     public ResponseEntity<Produto> atualizar(@PathVariable Long id, @RequestBody Produto produto) {
+        if (produto.getEstoque() != null) {
+            // O estoque só é informado na criação; depois muda por PATCH /{id}/estoque
+            return ResponseEntity.badRequest().build();
+        }
         try {
             Produto produtoAtualizado = produtoService.atualizar(id, produto);
             return ResponseEntity.ok(produtoAtualizado);
@@ -161,6 +186,16 @@ public class ProdutoController {
         }
     }
 
+    // Entrada de estoque (quantidade negativa para ajustes de perda); inicia o controle se ainda não havia
+    @PatchMapping("/{id}/estoque")
+    public ResponseEntity<EstoqueProduto> adicionarEstoque(@PathVariable Long id, @RequestParam int quantidade) {
+        try {
+            return ResponseEntity.ok(produtoService.adicionarEstoque(id, quantidade));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @PatchMapping("/{id}/promocao/ativar")
     public ResponseEntity<Void> ativarPromocao(@PathVariable Long id, @RequestBody BigDecimal precoPromocional) {
         try {
@@ -0,0 +1,61 @@
+package com.deliverytech.delivery.controller;
+
+import com.deliverytech.delivery.dto.ResumoVendas;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.service.RelatorioVendasService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/relatorios")
+@CrossOrigin(origins = "*")
+public class RelatorioController {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final RelatorioVendasService relatorioVendasService;
+
+    public RelatorioController(RelatorioVendasService relatorioVendasService) {
+        this.relatorioVendasService = relatorioVendasService;
+    }
+
+    // Vendas no período [inicio, fim), opcionalmente de um restaurante
+    @GetMapping("/vendas")
+    public ResponseEntity<ResumoVendas> resumoVendas(
+            @RequestParam String inicio,
+            @RequestParam String fim,
+            @RequestParam(required = false) Long restauranteId) {
+        try {
+            LocalDateTime dataInicio = LocalDateTime.parse(inicio, FORMATO_DATA);
+            LocalDateTime dataFim = LocalDateTime.parse(fim, FORMATO_DATA);
+            return ResponseEntity.ok(relatorioVendasService.resumoVendas(dataInicio, dataFim, restauranteId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/pedidos-por-status")
+    public ResponseEntity<Map<StatusPedido, Long>> pedidosPorStatus() {
+        return ResponseEntity.ok(relatorioVendasService.contarPedidosPorStatus());
+    }
+
+    // Reconstrução dos dados consolidados a partir dos pedidos (todo o histórico, ou só o período informado)
+    @PostMapping("/vendas/reconstruir")
+    public ResponseEntity<Map<String, Integer>> reconstruir(
+            @RequestParam(required = false) String inicio,
+            @RequestParam(required = false) String fim) {
+        try {
+            LocalDateTime dataInicio = inicio != null ? LocalDateTime.parse(inicio, FORMATO_DATA) : null;
+            LocalDateTime dataFim = fim != null ? LocalDateTime.parse(fim, FORMATO_DATA) : null;
+            int baldes = relatorioVendasService.reconstruir(dataInicio, dataFim);
+            return ResponseEntity.ok(Map.of("baldes", baldes));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.deliverytech.delivery.dto.PaginaCursor;
+import com.deliverytech.delivery.dto.RestauranteProximo;
 import com.deliverytech.delivery.entity.Restaurante;
 import com.deliverytech.delivery.service.RestauranteService;
 
@@ -23,9 +25,15 @@ public class RestauranteController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Restaurante>> listarTodos() {
-        List<Restaurante> restaurantes = restauranteService.listarTodos();
-        return ResponseEntity.ok(restaurantes);
+    public ResponseEntity<PaginaCursor<Restaurante>> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        try {
+            return ResponseEntity.ok(restauranteService.listarPagina(cursor, limite, incluirTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/ativos")
@@ -64,6 +72,23 @@ public class RestauranteController {
         return ResponseEntity.ok(restaurantes);
     }
     
+    // Restaurantes ativos que entregam no ponto informado, do mais próximo ao mais distante
+    @GetMapping("/proximos")
+    public ResponseEntity<List<RestauranteProximo>> buscarProximos(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(required = false) Double raioKm,
+            @RequestParam(required = false) BigDecimal taxaMaxima,
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(restauranteService.buscarQueEntregamEm(
+                    latitude, longitude, raioKm, taxaMaxima, categoria, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<Restaurante> cadastrar(@RequestBody Restaurante restaurante) {
         try {
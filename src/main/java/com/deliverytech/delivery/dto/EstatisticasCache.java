@@ -0,0 +1,10 @@
+package com.deliverytech.delivery.dto;
+
+// Contadores de um cache em memória, usados para dimensioná-lo
+public record EstatisticasCache(
+    long tamanho,
+    long acertos,
+    long falhas,
+    long remocoes,
+    double taxaAcerto
+) {}
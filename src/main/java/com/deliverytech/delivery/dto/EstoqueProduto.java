@@ -0,0 +1,8 @@
+package com.deliverytech.delivery.dto;
+
+// Quantidade de um produto disponível para novos pedidos (estoque menos as reservas em aberto).
+// Nula quando o produto não tem controle de estoque
+public record EstoqueProduto(
+    Long produtoId,
+    Integer disponivel
+) {}
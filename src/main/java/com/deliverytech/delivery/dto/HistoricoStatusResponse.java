@@ -0,0 +1,27 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.entity.HistoricoStatusPedido;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Entrada da linha do tempo de status de um pedido
+public record HistoricoStatusResponse(
+    StatusPedido statusAnterior,
+    StatusPedido status,
+    LocalDateTime dataTransicao
+) {
+
+    public static HistoricoStatusResponse de(HistoricoStatusPedido historico) {
+        return new HistoricoStatusResponse(
+            historico.getStatusAnterior(),
+            historico.getStatus(),
+            historico.getDataTransicao()
+        );
+    }
+
+    public static List<HistoricoStatusResponse> de(List<HistoricoStatusPedido> historicos) {
+        return historicos.stream().map(HistoricoStatusResponse::de).toList();
+    }
+}
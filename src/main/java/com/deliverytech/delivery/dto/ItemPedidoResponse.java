@@ -0,0 +1,29 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.entity.ItemPedido;
+
+import java.math.BigDecimal;
+
+// Projeção plana de ItemPedido para as respostas da API
+public record ItemPedidoResponse(
+    Long id,
+    Long produtoId,
+    String produtoNome,
+    Integer quantidade,
+    BigDecimal precoUnitario,
+    BigDecimal subtotal,
+    String observacoes
+) {
+
+    public static ItemPedidoResponse de(ItemPedido item) {
+        return new ItemPedidoResponse(
+            item.getId(),
+            item.getProduto().getId(),
+            item.getProduto().getNome(),
+            item.getQuantidade(),
+            item.getPrecoUnitario(),
+            item.getSubtotal(),
+            item.getObservacoes()
+        );
+    }
+}
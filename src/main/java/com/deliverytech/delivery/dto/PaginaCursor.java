@@ -0,0 +1,30 @@
+package com.deliverytech.delivery.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Página de uma listagem paginada por cursor (keyset).
+// O total só é preenchido quando solicitado, pois exige um COUNT sobre a tabela inteira.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaginaCursor<T>(
+    List<T> itens,
+    String proximoCursor,
+    boolean temMais,
+    Long total
+) {
+
+    // Monta a página a partir de uma consulta que buscou "tamanho + 1" registros:
+    // o registro excedente apenas indica que existe uma próxima página
+    public static <T> PaginaCursor<T> de(List<T> resultado, int tamanho, Function<T, String> cursorDe, Long total) {
+        boolean temMais = resultado.size() > tamanho;
+        List<T> itens = temMais ? resultado.subList(0, tamanho) : resultado;
+        String proximoCursor = temMais ? cursorDe.apply(itens.get(itens.size() - 1)) : null;
+        return new PaginaCursor<>(itens, proximoCursor, temMais, total);
+    }
+
+    public <R> PaginaCursor<R> map(Function<T, R> conversor) {
+        return new PaginaCursor<>(itens.stream().map(conversor).toList(), proximoCursor, temMais, total);
+    }
+}
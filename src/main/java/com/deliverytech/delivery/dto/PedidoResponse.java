@@ -0,0 +1,66 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.enums.FormaPagamento;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Projeção plana de Pedido para as respostas da API.
+// Espera cliente, restaurante e itens já carregados (grafo "Pedido.detalhes").
+public record PedidoResponse(
+    Long id,
+    String numeroPedido,
+    LocalDateTime dataPedido,
+    StatusPedido status,
+    String enderecoEntrega,
+    BigDecimal subtotal,
+    BigDecimal taxaEntrega,
+    BigDecimal valorDesconto,
+    BigDecimal valorTotal,
+    FormaPagamento formaPagamento,
+    String observacoes,
+    Integer tempoEstimadoEntrega,
+    LocalDateTime dataEntrega,
+    LocalDateTime dataCancelamento,
+    String motivoCancelamento,
+    Long versao,
+    Long clienteId,
+    String clienteNome,
+    Long restauranteId,
+    String restauranteNome,
+    List<ItemPedidoResponse> itens
+) {
+
+    public static PedidoResponse de(Pedido pedido) {
+        return new PedidoResponse(
+            pedido.getId(),
+            pedido.getNumeroPedido(),
+            pedido.getDataPedido(),
+            pedido.getStatus(),
+            pedido.getEnderecoEntrega(),
+            pedido.getSubtotal(),
+            pedido.getTaxaEntrega(),
+            pedido.getValorDesconto(),
+            pedido.getValorTotal(),
+            pedido.getFormaPagamento(),
+            pedido.getObservacoes(),
+            pedido.getTempoEstimadoEntrega(),
+            pedido.getDataEntrega(),
+            pedido.getDataCancelamento(),
+            pedido.getMotivoCancelamento(),
+            pedido.getVersao(),
+            pedido.getCliente().getId(),
+            pedido.getCliente().getNome(),
+            pedido.getRestaurante().getId(),
+            pedido.getRestaurante().getNome(),
+            pedido.getItens().stream().map(ItemPedidoResponse::de).toList()
+        );
+    }
+
+    public static List<PedidoResponse> de(List<Pedido> pedidos) {
+        return pedidos.stream().map(PedidoResponse::de).toList();
+    }
+}
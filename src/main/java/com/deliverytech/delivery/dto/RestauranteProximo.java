@@ -0,0 +1,14 @@
+package com.deliverytech.delivery.dto;
+
+import java.math.BigDecimal;
+
+// Restaurante que entrega no ponto consultado, com a distância em linha reta
+public record RestauranteProximo(
+    Long id,
+    String nome,
+    String categoria,
+    BigDecimal taxaEntrega,
+    BigDecimal avaliacao,
+    double raioEntregaKm,
+    double distanciaKm
+) {}
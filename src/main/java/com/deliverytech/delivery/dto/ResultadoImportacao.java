@@ -0,0 +1,17 @@
+package com.deliverytech.delivery.dto;
+
+import java.util.List;
+
+// Relatório de uma importação de pedidos em lote, com o resultado de cada linha
+public record ResultadoImportacao(
+    int total,
+    int importados,
+    int rejeitados,
+    List<ResultadoLinhaImportacao> linhas
+) {
+
+    public static ResultadoImportacao de(List<ResultadoLinhaImportacao> linhas) {
+        int importados = (int) linhas.stream().filter(ResultadoLinhaImportacao::sucesso).count();
+        return new ResultadoImportacao(linhas.size(), importados, linhas.size() - importados, linhas);
+    }
+}
@@ -0,0 +1,25 @@
+package com.deliverytech.delivery.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Resultado de uma linha do arquivo NDJSON importado: ID do pedido criado ou motivo da rejeição
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResultadoLinhaImportacao(
+    int linha,
+    String numeroPedido,
+    Long pedidoId,
+    String erro
+) {
+
+    public static ResultadoLinhaImportacao importado(int linha, String numeroPedido, Long pedidoId) {
+        return new ResultadoLinhaImportacao(linha, numeroPedido, pedidoId, null);
+    }
+
+    public static ResultadoLinhaImportacao rejeitado(int linha, String numeroPedido, String erro) {
+        return new ResultadoLinhaImportacao(linha, numeroPedido, null, erro);
+    }
+
+    public boolean sucesso() {
+        return erro == null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.deliverytech.delivery.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Total de pedidos (não cancelados), valor vendido e ticket médio de um período
+public record ResumoVendas(
+    Long quantidadePedidos,
+    BigDecimal valorTotal,
+    BigDecimal ticketMedio
+) {
+
+    // Usado pelas expressões de construtor das consultas JPQL
+    public ResumoVendas(Long quantidadePedidos, BigDecimal valorTotal) {
+        this(quantidadePedidos, valorTotal, ticketMedio(quantidadePedidos, valorTotal));
+    }
+
+    public static ResumoVendas vazio() {
+        return new ResumoVendas(0L, BigDecimal.ZERO);
+    }
+
+    public ResumoVendas somar(ResumoVendas outro) {
+        return new ResumoVendas(quantidadePedidos + outro.quantidadePedidos, valorTotal.add(outro.valorTotal));
+    }
+
+    private static BigDecimal ticketMedio(Long quantidadePedidos, BigDecimal valorTotal) {
+        if (quantidadePedidos == null || quantidadePedidos == 0) {
+            return BigDecimal.ZERO;
+        }
+        return valorTotal.divide(BigDecimal.valueOf(quantidadePedidos), 2, RoundingMode.HALF_UP);
+    }
+}
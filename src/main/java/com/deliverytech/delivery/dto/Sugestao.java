@@ -0,0 +1,10 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.enums.TipoSugestao;
+
+// Sugestão de autocompletar: texto exibido, origem e popularidade usada na ordenação
+public record Sugestao(
+    String texto,
+    TipoSugestao tipo,
+    long popularidade
+) {}
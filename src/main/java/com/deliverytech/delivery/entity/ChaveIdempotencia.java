@@ -0,0 +1,61 @@
+package com.deliverytech.delivery.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Chave de idempotência (cabeçalho Idempotency-Key) associada ao pedido que ela criou
+@Entity
+@Table(name = "chaves_idempotencia", indexes = {
+    @Index(name = "idx_chaves_idempotencia_expira", columnList = "expira_em")
+})
+public class ChaveIdempotencia {
+
+    @Id
+    @Column(length = 100)
+    private String chave;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    // Constructors
+    public ChaveIdempotencia() {}
+
+    // Getters and Setters
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public void setPedidoId(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(LocalDateTime expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+}
@@ -0,0 +1,59 @@
+package com.deliverytech.delivery.entity;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Embeddable
+public class ChaveVendaConsolidada implements Serializable {
+
+    @Column(name = "restaurante_id", nullable = false)
+    private Long restauranteId;
+
+    // Início da hora do pedido (data_pedido truncada para a hora)
+    @Column(nullable = false)
+    private LocalDateTime hora;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private StatusPedido status;
+
+    // Constructors
+    public ChaveVendaConsolidada() {}
+
+    public ChaveVendaConsolidada(Long restauranteId, LocalDateTime hora, StatusPedido status) {
+        this.restauranteId = restauranteId;
+        this.hora = hora;
+        this.status = status;
+    }
+
+    // Getters
+    public Long getRestauranteId() {
+        return restauranteId;
+    }
+
+    public LocalDateTime getHora() {
+        return hora;
+    }
+
+    public StatusPedido getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChaveVendaConsolidada outra)) return false;
+        return Objects.equals(restauranteId, outra.restauranteId)
+                && Objects.equals(hora, outra.hora)
+                && status == outra.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(restauranteId, hora, status);
+    }
+}
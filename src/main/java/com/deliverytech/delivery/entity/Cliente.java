@@ -1,11 +1,18 @@
 package com.deliverytech.delivery.entity;
 
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.List;
 import java.time.LocalDateTime;
 
+// Cache de segundo nível (região "clientes"): escritas pela sessão atualizam a região após o commit
 @Entity
 @Table(name = "clientes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
 public class Cliente {
     
     @Id
@@ -23,6 +30,11 @@ public class Cliente {
     
     @Column(nullable = false, length = 255)
     private String endereco;
+
+    // Coordenadas do endereço em graus decimais (WGS 84)
+    private Double latitude;
+
+    private Double longitude;
     
     @Column(nullable = false)
     private Boolean ativo = true;
@@ -90,6 +102,22 @@ public class Cliente {
     public void setEndereco(String endereco) {
         this.endereco = endereco;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
     
     public Boolean getAtivo() {
         return ativo;
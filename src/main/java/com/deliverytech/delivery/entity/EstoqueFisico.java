@@ -0,0 +1,34 @@
+package com.deliverytech.delivery.entity;
+
+import jakarta.persistence.*;
+
+// Estoque físico de um produto com controle de estoque. Fica fora de Produto, e sem cache de segundo nível,
+// porque muda a cada gravação das baixas: um UPDATE em massa sobre Produto invalidaria a região "produtos"
+@Entity
+@Table(name = "estoques_produtos")
+public class EstoqueFisico {
+
+    @Id
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    // Constructors
+    public EstoqueFisico() {}
+
+    public EstoqueFisico(Long produtoId, Integer quantidade) {
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+    }
+
+    // Getters
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+}
@@ -0,0 +1,84 @@
+package com.deliverytech.delivery.entity;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "pedidos_historico_status", indexes = {
+    @Index(name = "idx_historico_status_pedido_data", columnList = "pedido_id, data_transicao")
+})
+public class HistoricoStatusPedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_historico_status_seq")
+    @SequenceGenerator(name = "pedidos_historico_status_seq", sequenceName = "pedidos_historico_status_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id", nullable = false)
+    private Pedido pedido;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_anterior", length = 50)
+    private StatusPedido statusAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private StatusPedido status;
+
+    @Column(name = "data_transicao", nullable = false)
+    private LocalDateTime dataTransicao;
+
+    // Constructors
+    public HistoricoStatusPedido() {}
+
+    public HistoricoStatusPedido(Pedido pedido, StatusPedido statusAnterior, StatusPedido status, LocalDateTime dataTransicao) {
+        this.pedido = pedido;
+        this.statusAnterior = statusAnterior;
+        this.status = status;
+        this.dataTransicao = dataTransicao;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Pedido getPedido() {
+        return pedido;
+    }
+
+    public void setPedido(Pedido pedido) {
+        this.pedido = pedido;
+    }
+
+    public StatusPedido getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public void setStatusAnterior(StatusPedido statusAnterior) {
+        this.statusAnterior = statusAnterior;
+    }
+
+    public StatusPedido getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusPedido status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getDataTransicao() {
+        return dataTransicao;
+    }
+
+    public void setDataTransicao(LocalDateTime dataTransicao) {
+        this.dataTransicao = dataTransicao;
+    }
+}
@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "itens_pedido")
+@Table(name = "itens_pedido", indexes = {
+    @Index(name = "idx_itens_pedido_pedido", columnList = "pedido_id"),
+    @Index(name = "idx_itens_pedido_produto", columnList = "produto_id")
+})
 public class ItemPedido {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_seq")
+    @SequenceGenerator(name = "itens_pedido_seq", sequenceName = "itens_pedido_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -10,11 +10,27 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+    @Index(name = "idx_pedidos_status_data_pedido", columnList = "status, data_pedido"),
+    @Index(name = "idx_pedidos_restaurante_data_pedido", columnList = "restaurante_id, data_pedido"),
+    @Index(name = "idx_pedidos_cliente_data_pedido", columnList = "cliente_id, data_pedido"),
+    @Index(name = "idx_pedidos_data_pedido_id", columnList = "data_pedido, id"),
+    @Index(name = "idx_pedidos_numero_pedido", columnList = "numero_pedido", unique = true)
+})
+@NamedEntityGraph(
+    name = "Pedido.detalhes",
+    attributeNodes = {
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("restaurante"),
+        @NamedAttributeNode(value = "itens", subgraph = "itens")
+    },
+    subgraphs = @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode("produto"))
+)
 public class Pedido {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "numero_pedido", nullable = false, length = 50)
@@ -26,6 +42,13 @@ public class Pedido {
     @Column(name = "endereco_entrega", nullable = false, columnDefinition = "TEXT")
     private String enderecoEntrega;
 
+    // Coordenadas do endereço de entrega em graus decimais (WGS 84)
+    @Column(name = "latitude_entrega")
+    private Double latitudeEntrega;
+
+    @Column(name = "longitude_entrega")
+    private Double longitudeEntrega;
+
     @Column(precision = 10, scale = 2)
     private BigDecimal subtotal;
     
@@ -77,6 +100,10 @@ public class Pedido {
     
     @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<ItemPedido> itens = new ArrayList<>();
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
     
     // Constructors
     public Pedido() {
@@ -126,6 +153,22 @@ public class Pedido {
         this.enderecoEntrega = enderecoEntrega;
     }
 
+    public Double getLatitudeEntrega() {
+        return latitudeEntrega;
+    }
+
+    public void setLatitudeEntrega(Double latitudeEntrega) {
+        this.latitudeEntrega = latitudeEntrega;
+    }
+
+    public Double getLongitudeEntrega() {
+        return longitudeEntrega;
+    }
+
+    public void setLongitudeEntrega(Double longitudeEntrega) {
+        this.longitudeEntrega = longitudeEntrega;
+    }
+
     public BigDecimal getSubtotal() {
         return subtotal;
     }
@@ -254,6 +297,14 @@ public class Pedido {
     public void setItens(List<ItemPedido> itens) {
         this.itens = itens;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
     
     // PrePersist e PreUpdate
     @PrePersist
@@ -290,17 +341,29 @@ public class Pedido {
         this.valorTotal = itensSubtotal.add(taxa).subtract(desconto);
     }
     
+    // Aplica uma transição de status validada pela tabela de StatusPedido, atualizando as datas do status
+    public void alterarStatus(StatusPedido novoStatus) {
+        if (!status.podeTransicionarPara(novoStatus)) {
+            throw new IllegalStateException("Transição de status inválida de " + status + " para " + novoStatus);
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        if (novoStatus == StatusPedido.ENTREGUE) {
+            this.dataEntrega = agora;
+        } else if (novoStatus == StatusPedido.CANCELADO) {
+            this.dataCancelamento = agora;
+            this.tempoEstimadoEntrega = null;
+        }
+        this.status = novoStatus;
+        this.dataAtualizacao = agora;
+    }
+    
     public void cancelar(String motivo) {
-        this.status = StatusPedido.CANCELADO;
-        this.dataCancelamento = LocalDateTime.now();
+        alterarStatus(StatusPedido.CANCELADO);
         this.motivoCancelamento = motivo;
-        this.dataAtualizacao = LocalDateTime.now();
     }
     
     public void entregar() {
-        this.status = StatusPedido.ENTREGUE;
-        this.dataEntrega = LocalDateTime.now();
-        this.dataAtualizacao = LocalDateTime.now();
+        alterarStatus(StatusPedido.ENTREGUE);
     }
     
     @Override
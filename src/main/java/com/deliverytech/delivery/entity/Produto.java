@@ -1,11 +1,24 @@
 package com.deliverytech.delivery.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Cache de segundo nível (região "produtos"): escritas pela sessão atualizam a região após o commit
 @Entity
-@Table(name = "produtos")
+@Table(name = "produtos", indexes = {
+    @Index(name = "idx_produtos_restaurante_disponivel", columnList = "restaurante_id, disponivel, ativo"),
+    @Index(name = "idx_produtos_categoria_disponivel", columnList = "categoria, disponivel"),
+    @Index(name = "idx_produtos_preco_efetivo", columnList = "preco_efetivo")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "produtos")
 public class Produto {
     
     @Id
@@ -26,6 +39,11 @@ public class Produto {
     
     @Column(name = "preco_promocional", precision = 10, scale = 2)
     private BigDecimal precoPromocional;
+
+    // Preço efetivo (promocional se houver, senão preço normal), mantido pelos setters
+    // para permitir consultas por faixa de preço através do índice
+    @Column(name = "preco_efetivo", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precoEfetivo;
     
     @Column(nullable = false, length = 100)
     private String categoria;
@@ -41,6 +59,13 @@ public class Produto {
     
     @Column(name = "tempo_preparo")
     private Integer tempoPreparo; // em minutos
+
+    // Estoque inicial informado na criação (nulo = sem controle). Não é persistido aqui: o estoque físico
+    // fica em estoques_produtos (EstoqueFisico), fora do cache de segundo nível. Só de entrada no JSON:
+    // a quantidade disponível é consultada em GET /api/produtos/{id}/estoque
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Integer estoque;
     
     @Column(name = "data_criacao", nullable = false)
     private LocalDateTime dataCriacao;
@@ -100,6 +125,7 @@ public class Produto {
     
     public void setPreco(BigDecimal preco) {
         this.preco = preco;
+        atualizarPrecoEfetivo();
     }
     
     public Boolean getPromocao() {
@@ -108,6 +134,7 @@ public class Produto {
     
     public void setPromocao(Boolean promocao) {
         this.promocao = promocao;
+        atualizarPrecoEfetivo();
     }
     
     public BigDecimal getPrecoPromocional() {
@@ -116,6 +143,7 @@ public class Produto {
     
     public void setPrecoPromocional(BigDecimal precoPromocional) {
         this.precoPromocional = precoPromocional;
+        atualizarPrecoEfetivo();
     }
     
     public String getCategoria() {
@@ -142,6 +170,14 @@ public class Produto {
         this.ativo = ativo;
     }
     
+    public Integer getEstoque() {
+        return estoque;
+    }
+
+    public void setEstoque(Integer estoque) {
+        this.estoque = estoque;
+    }
+
     public Boolean getDisponivel() {
         return disponivel;
     }
@@ -186,11 +222,13 @@ public class Produto {
     @PrePersist
     public void prePersist() {
         this.dataCriacao = LocalDateTime.now();
+        atualizarPrecoEfetivo();
     }
 
     @PreUpdate
     public void preUpdate() {
         this.dataAtualizacao = LocalDateTime.now();
+        atualizarPrecoEfetivo();
     }
 
     // Métodos Utilitários
@@ -206,9 +244,13 @@ public class Produto {
         }
     }
     
-    // Método utilitário para obter o preço efetivo (promocional se houver, senão preço normal)
+    // Preço efetivo (promocional se houver, senão preço normal)
     public BigDecimal getPrecoEfetivo() {
-        return Boolean.TRUE.equals(promocao) && precoPromocional != null ? precoPromocional : preco;
+        return precoEfetivo;
+    }
+
+    public void atualizarPrecoEfetivo() {
+        this.precoEfetivo = Boolean.TRUE.equals(promocao) && precoPromocional != null ? precoPromocional : preco;
     }
     
     // toString
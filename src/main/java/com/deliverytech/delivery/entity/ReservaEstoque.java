@@ -0,0 +1,109 @@
+package com.deliverytech.delivery.entity;
+
+import com.deliverytech.delivery.enums.StatusReserva;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reservas_estoque", indexes = {
+    @Index(name = "idx_reservas_estoque_pedido", columnList = "pedido_id, status"),
+    @Index(name = "idx_reservas_estoque_status_expira", columnList = "status, expira_em"),
+    @Index(name = "idx_reservas_estoque_produto_status", columnList = "produto_id, status")
+})
+public class ReservaEstoque {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_estoque_seq")
+    @SequenceGenerator(name = "reservas_estoque_seq", sequenceName = "reservas_estoque_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusReserva status;
+
+    // Prazo para o pedido ser confirmado; nulo depois da confirmação
+    @Column(name = "expira_em")
+    private LocalDateTime expiraEm;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    // Constructors
+    public ReservaEstoque() {}
+
+    public ReservaEstoque(Long pedidoId, Long produtoId, Integer quantidade, LocalDateTime expiraEm) {
+        this.pedidoId = pedidoId;
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+        this.status = StatusReserva.ATIVA;
+        this.expiraEm = expiraEm;
+        this.dataCriacao = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public void setPedidoId(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public void setProdutoId(Long produtoId) {
+        this.produtoId = produtoId;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public StatusReserva getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusReserva status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(LocalDateTime expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+}
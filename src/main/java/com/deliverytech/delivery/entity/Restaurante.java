@@ -1,12 +1,23 @@
 package com.deliverytech.delivery.entity;
 
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Cache de segundo nível (região "restaurantes"): escritas pela sessão atualizam a região após o commit
 @Entity
-@Table(name = "restaurantes")
+@Table(name = "restaurantes", indexes = {
+    @Index(name = "idx_restaurantes_nome", columnList = "nome"),
+    @Index(name = "idx_restaurantes_categoria_ativo", columnList = "categoria, ativo"),
+    @Index(name = "idx_restaurantes_taxa_entrega", columnList = "taxa_entrega")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurantes")
 public class Restaurante {
     
     @Id
@@ -33,6 +44,14 @@ public class Restaurante {
     
     @Column(nullable = false)
     private Boolean ativo = true;
+
+    // Coordenadas em graus decimais (WGS 84) e raio de entrega em km
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(name = "raio_entrega_km", nullable = false)
+    private Double raioEntregaKm = 5.0;
     
     @Column(name = "data_criacao", nullable = false)
     private LocalDateTime dataCriacao;
@@ -118,6 +137,30 @@ public class Restaurante {
         this.ativo = ativo;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRaioEntregaKm() {
+        return raioEntregaKm;
+    }
+
+    public void setRaioEntregaKm(Double raioEntregaKm) {
+        this.raioEntregaKm = raioEntregaKm;
+    }
+
     public BigDecimal getAvaliacao() {
         return avaliacao;
     }
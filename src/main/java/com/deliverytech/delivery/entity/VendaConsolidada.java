@@ -0,0 +1,38 @@
+package com.deliverytech.delivery.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+// Consolidação incremental de pedidos por restaurante, hora e status atual.
+// Cada pedido conta no balde do seu status; as transições movem o pedido de um balde para outro.
+@Entity
+@Table(name = "vendas_consolidadas", indexes = {
+    @Index(name = "idx_vendas_consolidadas_hora", columnList = "hora")
+})
+public class VendaConsolidada {
+
+    @EmbeddedId
+    private ChaveVendaConsolidada chave;
+
+    @Column(nullable = false)
+    private Long quantidade;
+
+    @Column(name = "valor_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorTotal;
+
+    // Constructors
+    public VendaConsolidada() {}
+
+    // Getters
+    public ChaveVendaConsolidada getChave() {
+        return chave;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+}
@@ -0,0 +1,6 @@
+package com.deliverytech.delivery.enums;
+
+public enum FormatoExportacao {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,9 @@
+package com.deliverytech.delivery.enums;
+
+// O que fazer com as transações somente leitura quando a réplica está atrasada:
+// USAR_PRIMARIO: enviá-las ao primário enquanto o atraso passar de delivery.datasource.replica.atraso-maximo
+// IGNORAR: usar a réplica sempre que ela responder, sem medir o atraso (ex.: dois bancos locais sem replicação)
+public enum PoliticaAtrasoReplica {
+    USAR_PRIMARIO,
+    IGNORAR
+}
@@ -1,5 +1,14 @@
 package com.deliverytech.delivery.enums;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Status do pedido com a tabela de transições pré-calculada: cada status guarda um bitmask
+// (um bit por ordinal) dos destinos permitidos, então a verificação é uma operação de bits sem alocação.
+//
+// PENDENTE -> CONFIRMADO -> PREPARANDO -> PRONTO -> SAIU_PARA_ENTREGA -> ENTREGUE
+// PENDENTE | CONFIRMADO -> CANCELADO
 public enum StatusPedido {
     PENDENTE,
     CONFIRMADO,
@@ -7,5 +16,47 @@ public enum StatusPedido {
     SAIU_PARA_ENTREGA,
     ENTREGUE,
     PRONTO,
-    CANCELADO
+    CANCELADO;
+
+    private int destinos;
+    private Set<StatusPedido> origens;
+
+    static {
+        PENDENTE.permitir(CONFIRMADO, CANCELADO);
+        CONFIRMADO.permitir(PREPARANDO, CANCELADO);
+        PREPARANDO.permitir(PRONTO);
+        PRONTO.permitir(SAIU_PARA_ENTREGA);
+        SAIU_PARA_ENTREGA.permitir(ENTREGUE);
+
+        // Origens de cada destino, calculadas uma única vez a partir dos bitmasks
+        for (StatusPedido destino : values()) {
+            Set<StatusPedido> origensDestino = EnumSet.noneOf(StatusPedido.class);
+            for (StatusPedido origem : values()) {
+                if (origem.podeTransicionarPara(destino)) {
+                    origensDestino.add(origem);
+                }
+            }
+            destino.origens = Collections.unmodifiableSet(origensDestino);
+        }
+    }
+
+    private void permitir(StatusPedido... novosDestinos) {
+        for (StatusPedido destino : novosDestinos) {
+            destinos |= 1 << destino.ordinal();
+        }
+    }
+
+    public boolean podeTransicionarPara(StatusPedido destino) {
+        return (destinos & (1 << destino.ordinal())) != 0;
+    }
+
+    // Status a partir dos quais é possível chegar neste status
+    public Set<StatusPedido> getOrigens() {
+        return origens;
+    }
+
+    // ENTREGUE e CANCELADO não têm transições de saída
+    public boolean isTerminal() {
+        return destinos == 0;
+    }
 }
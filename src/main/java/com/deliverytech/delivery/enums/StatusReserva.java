@@ -0,0 +1,12 @@
+package com.deliverytech.delivery.enums;
+
+// ATIVA: estoque separado para um pedido ainda não em preparo (com prazo enquanto PENDENTE)
+// CONSUMIDA: pedido em preparo; falta descontar de estoques_produtos (gravação em segundo plano)
+// BAIXADA: já descontada de estoques_produtos
+// LIBERADA: pedido cancelado ou reserva expirada; a quantidade voltou a ficar disponível
+public enum StatusReserva {
+    ATIVA,
+    CONSUMIDA,
+    BAIXADA,
+    LIBERADA
+}
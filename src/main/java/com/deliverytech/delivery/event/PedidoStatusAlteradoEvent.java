@@ -0,0 +1,25 @@
+package com.deliverytech.delivery.event;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Evento publicado a cada transição de status gravada pela máquina de estados (statusAnterior nulo = pedido criado).
+// Carrega apenas valores, para que consumidores executados após o commit não dependam da sessão JPA
+public record PedidoStatusAlteradoEvent(
+    Long pedidoId,
+    String numeroPedido,
+    Long restauranteId,
+    Long clienteId,
+    StatusPedido statusAnterior,
+    StatusPedido statusNovo,
+    BigDecimal valorTotal,
+    LocalDateTime dataPedido,
+    LocalDateTime dataTransicao
+) {
+
+    public boolean isCriacao() {
+        return statusAnterior == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.deliverytech.delivery.exception;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+// Lançada quando a transição condicional de status não altera nenhuma linha:
+// o pedido já estava em outro status (transição inválida ou alteração concorrente)
+public class ConflitoStatusPedidoException extends RuntimeException {
+
+    private final Long pedidoId;
+    private final StatusPedido statusAtual;
+    private final StatusPedido statusSolicitado;
+
+    public ConflitoStatusPedidoException(Long pedidoId, StatusPedido statusAtual, StatusPedido statusSolicitado) {
+        super(statusAtual == statusSolicitado
+                ? "Pedido " + pedidoId + " já está no status: " + statusAtual
+                : "Transição de status inválida de " + statusAtual + " para " + statusSolicitado + " no pedido " + pedidoId);
+        this.pedidoId = pedidoId;
+        this.statusAtual = statusAtual;
+        this.statusSolicitado = statusSolicitado;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public StatusPedido getStatusAtual() {
+        return statusAtual;
+    }
+
+    public StatusPedido getStatusSolicitado() {
+        return statusSolicitado;
+    }
+}
@@ -0,0 +1,29 @@
+package com.deliverytech.delivery.exception;
+
+// Lançada na criação do pedido quando a reserva de um item não cabe no estoque disponível
+public class EstoqueInsuficienteException extends RuntimeException {
+
+    private final Long produtoId;
+    private final int quantidadeSolicitada;
+    private final int quantidadeDisponivel;
+
+    public EstoqueInsuficienteException(Long produtoId, int quantidadeSolicitada, int quantidadeDisponivel) {
+        super("Estoque insuficiente para o produto " + produtoId + ": solicitado " + quantidadeSolicitada
+                + ", disponível " + Math.max(quantidadeDisponivel, 0));
+        this.produtoId = produtoId;
+        this.quantidadeSolicitada = quantidadeSolicitada;
+        this.quantidadeDisponivel = quantidadeDisponivel;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public int getQuantidadeSolicitada() {
+        return quantidadeSolicitada;
+    }
+
+    public int getQuantidadeDisponivel() {
+        return quantidadeDisponivel;
+    }
+}
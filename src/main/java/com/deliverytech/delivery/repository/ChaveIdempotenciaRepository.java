@@ -0,0 +1,44 @@
+package com.deliverytech.delivery.repository;
+
+import com.deliverytech.delivery.entity.ChaveIdempotencia;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    // Chave ainda válida
+    @Query("SELECT c FROM ChaveIdempotencia c WHERE c.chave = :chave AND c.expiraEm > :agora")
+    Optional<ChaveIdempotencia> findValida(@Param("chave") String chave, @Param("agora") LocalDateTime agora);
+
+    // INSERT direto (a chave é atribuída, então save() faria um SELECT antes). Uma chave repetida viola a
+    // chave primária já neste comando e desfaz a transação do pedido. A tabela tocada é declarada para o
+    // Hibernate não esvaziar o cache de segundo nível
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chaves_idempotencia"))
+    @Query(value = """
+            INSERT INTO chaves_idempotencia (chave, pedido_id, data_criacao, expira_em)
+            VALUES (:chave, :pedidoId, :dataCriacao, :expiraEm)
+            """, nativeQuery = true)
+    int inserir(@Param("chave") String chave,
+                @Param("pedidoId") Long pedidoId,
+                @Param("dataCriacao") LocalDateTime dataCriacao,
+                @Param("expiraEm") LocalDateTime expiraEm);
+
+    // Limpeza das chaves vencidas (usa idx_chaves_idempotencia_expira)
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.expiraEm <= :agora")
+    int apagarVencidas(@Param("agora") LocalDateTime agora);
+}
@@ -2,8 +2,14 @@ package com.deliverytech.delivery.repository;
 
 import com.deliverytech.delivery.entity.Cliente;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,10 +19,15 @@ import java.util.Optional;
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     
-    // Buscar cliente por email (método derivado)
+    // Paginação por cursor (keyset) sobre o ID
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    // Buscar cliente por email (método derivado, cache de consultas)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Cliente> findByEmail(String email);
 
-    // Verificar se email já existe
+    // Verificar se email já existe (cache de consultas)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
     
     // Buscar clientes ativos
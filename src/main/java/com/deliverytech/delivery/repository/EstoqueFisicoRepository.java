@@ -0,0 +1,37 @@
+package com.deliverytech.delivery.repository;
+
+import com.deliverytech.delivery.entity.EstoqueFisico;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EstoqueFisicoRepository extends JpaRepository<EstoqueFisico, Long> {
+
+    // Entrada de estoque (ou início do controle, quando o produto ainda não tinha) em um único comando;
+    // 0 se o produto não existe. Declara a tabela que toca para não esvaziar o cache de segundo nível
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "estoques_produtos"))
+    @Query(value = """
+            MERGE INTO estoques_produtos e
+            USING (SELECT p.id, CAST(:quantidade AS INTEGER) FROM produtos p WHERE p.id = :id)
+                AS d (produto_id, quantidade)
+            ON e.produto_id = d.produto_id
+            WHEN MATCHED THEN UPDATE SET quantidade = e.quantidade + d.quantidade
+            WHEN NOT MATCHED THEN INSERT (produto_id, quantidade) VALUES (d.produto_id, d.quantidade)
+            """, nativeQuery = true)
+    int adicionar(@Param("id") Long produtoId, @Param("quantidade") int quantidade);
+
+    // Baixa de estoque acumulada pela gravação em segundo plano
+    @Modifying
+    @Query("UPDATE EstoqueFisico e SET e.quantidade = e.quantidade - :quantidade WHERE e.produtoId = :id")
+    int baixar(@Param("id") Long produtoId, @Param("quantidade") long quantidade);
+}
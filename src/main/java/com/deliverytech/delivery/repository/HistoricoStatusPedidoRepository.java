@@ -0,0 +1,15 @@
+package com.deliverytech.delivery.repository;
+
+import com.deliverytech.delivery.entity.HistoricoStatusPedido;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HistoricoStatusPedidoRepository extends JpaRepository<HistoricoStatusPedido, Long> {
+
+    // Linha do tempo do pedido, na ordem das transições
+    List<HistoricoStatusPedido> findByPedidoIdOrderByDataTransicaoAscIdAsc(Long pedidoId);
+}
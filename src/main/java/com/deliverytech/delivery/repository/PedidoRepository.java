@@ -1,58 +1,149 @@
 package com.deliverytech.delivery.repository;
 
+import com.deliverytech.delivery.dto.ResumoVendas;
 import com.deliverytech.delivery.entity.Pedido;
 import com.deliverytech.delivery.entity.Restaurante;
 import com.deliverytech.delivery.entity.Cliente;
 import com.deliverytech.delivery.enums.StatusPedido;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+
+    // As listagens usam o grafo "Pedido.detalhes" para trazer cliente, restaurante e itens
+    // na mesma consulta, evitando N+1 ao montar as respostas fora da transação
+
+    // Listar todos os pedidos com detalhes
+    @Override
+    @EntityGraph("Pedido.detalhes")
+    List<Pedido> findAll();
+
+    // Buscar pedido por ID com detalhes
+    @EntityGraph("Pedido.detalhes")
+    Optional<Pedido> findComDetalhesById(Long id);
     
+    // Paginação por cursor (keyset) - primeira página, mais recentes primeiro
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    @Query("SELECT p FROM Pedido p ORDER BY p.dataPedido DESC, p.id DESC")
+    List<Pedido> findPrimeiraPagina(Limit limite);
+
+    // Paginação por cursor (keyset) - registros após a posição (dataPedido, id) do cursor
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    @Query("SELECT p FROM Pedido p WHERE p.dataPedido <= :dataPedido " +
+            "AND (p.dataPedido < :dataPedido OR p.id < :id) " +
+            "ORDER BY p.dataPedido DESC, p.id DESC")
+    List<Pedido> findPaginaApos(@Param("dataPedido") LocalDateTime dataPedido, @Param("id") Long id, Limit limite);
+
+    // Paginação pelo número do pedido (crescente no tempo): primeira página e página após o número do cursor,
+    // mais recentes primeiro (usa o índice único idx_pedidos_numero_pedido)
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    List<Pedido> findByOrderByNumeroPedidoDesc(Limit limite);
+
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    List<Pedido> findByNumeroPedidoLessThanOrderByNumeroPedidoDesc(String numeroPedido, Limit limite);
+
+    // Carregar os itens de uma página de pedidos em uma única consulta
+    @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto WHERE p.id IN :ids")
+    List<Pedido> carregarItens(@Param("ids") List<Long> ids);
+
     // Buscar pedidos por cliente
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByClienteOrderByDataPedidoDesc(Cliente cliente);
 
     // Buscar pedidos por cliente ID
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByClienteIdOrderByDataPedidoDesc(Long clienteId);
     
     // Buscar pedidos por restaurante
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByRestauranteOrderByDataPedidoDesc(Restaurante restaurante);
     
     // Buscar por status
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByStatusOrderByDataPedidoDesc(StatusPedido status);
 
-    // Buscar por número do pedido
-    Pedido findByNumeroPedido(String numeroPedido);
+    // Status atual do pedido (leitura escalar usada antes da transição condicional)
+    @Query("SELECT p.status FROM Pedido p WHERE p.id = :id")
+    Optional<StatusPedido> findStatusById(@Param("id") Long id);
+
+    // Transições condicionais de status (compare-and-set): o UPDATE só altera o pedido se ele ainda estiver
+    // no status lido antes. Retorna 0 quando outro processo mudou o status nesse intervalo
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = :novoStatus, p.dataAtualizacao = :agora, p.versao = p.versao + 1 " +
+            "WHERE p.id = :id AND p.status = :statusAnterior")
+    int transicionarStatus(@Param("id") Long id,
+                           @Param("statusAnterior") StatusPedido statusAnterior,
+                           @Param("novoStatus") StatusPedido novoStatus,
+                           @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = com.deliverytech.delivery.enums.StatusPedido.CANCELADO, " +
+            "p.motivoCancelamento = :motivo, p.dataCancelamento = :agora, p.tempoEstimadoEntrega = NULL, " +
+            "p.dataAtualizacao = :agora, p.versao = p.versao + 1 WHERE p.id = :id AND p.status = :statusAnterior")
+    int transicionarParaCancelado(@Param("id") Long id,
+                                  @Param("statusAnterior") StatusPedido statusAnterior,
+                                  @Param("motivo") String motivo,
+                                  @Param("agora") LocalDateTime agora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = com.deliverytech.delivery.enums.StatusPedido.ENTREGUE, " +
+            "p.dataEntrega = :agora, p.dataAtualizacao = :agora, " +
+            "p.versao = p.versao + 1 WHERE p.id = :id AND p.status = :statusAnterior")
+    int transicionarParaEntregue(@Param("id") Long id,
+                                 @Param("statusAnterior") StatusPedido statusAnterior,
+                                 @Param("agora") LocalDateTime agora);
+
+    // Buscar por número do pedido (único)
+    Optional<Pedido> findByNumeroPedido(String numeroPedido);
 
     // Buscar pedidos por período
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByDataPedidoBetweenOrderByDataPedidoDesc(LocalDateTime inicio, LocalDateTime fim);
 
-    // Buscar pedidos do dia
-    @Query("SELECT p FROM Pedido p WHERE DATE(p.dataPedido) = CURRENT_DATE ORDER BY p.dataPedido DESC")
-    List<Pedido> findPedidosDodia();
+    // Buscar pedidos do dia: intervalo semiaberto [hoje 00:00, amanhã 00:00) sobre data_pedido,
+    // que usa o índice (uma função aplicada à coluna não usaria)
+    default List<Pedido> findPedidosDodia() {
+        LocalDate hoje = LocalDate.now();
+        return findPedidosNoIntervalo(hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay());
+    }
+
+    // Buscar pedidos em [inicio, fim)
+    @EntityGraph("Pedido.detalhes")
+    @Query("SELECT p FROM Pedido p WHERE p.dataPedido >= :inicio AND p.dataPedido < :fim ORDER BY p.dataPedido DESC")
+    List<Pedido> findPedidosNoIntervalo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
     
     // Buscar pedidos por cliente e status
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByClienteAndStatus(Cliente cliente, StatusPedido status);
     
     // Buscar pedidos por restaurante e status
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByRestauranteAndStatus(Restaurante restaurante, StatusPedido status);
     
     // Buscar pedidos por data de pedido
+    @EntityGraph("Pedido.detalhes")
     List<Pedido> findByDataPedidoBetween(LocalDateTime inicio, LocalDateTime fim);
 
     // Consultas personalizadas - Buscar pedidos por restaurante id e ordenar por data do pedido
+    @EntityGraph("Pedido.detalhes")
     @Query("SELECT p FROM Pedido p WHERE p.restaurante.id = :restauranteId ORDER BY p.dataPedido DESC")
     List<Pedido> findByRestauranteIdOrderByDataPedidoDesc(@Param("restauranteId") Long restauranteId);
     
     // Consultas personalizadas - Buscar pedidos por status e ordenar por data do pedido
+    @EntityGraph("Pedido.detalhes")
     @Query("SELECT p FROM Pedido p WHERE p.status IN :statuses ORDER BY p.dataPedido ASC")
     List<Pedido> findByStatusInOrderByDataPedidoAsc(@Param("statuses") List<StatusPedido> statuses);
     
@@ -69,10 +160,21 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     List<Object[]> countPedidosByStatus();
     
     // Pedidos pendentes (para dashboard)
+    @EntityGraph("Pedido.detalhes")
     @Query("SELECT p FROM Pedido p WHERE p.status IN ('PENDENTE', 'CONFIRMADO', 'PREPARANDO') " +
             "ORDER BY p.dataPedido ASC")
     List<Pedido> findPedidosPendentes();
     
+    // Vendas (pedidos não cancelados) em [inicio, fim), opcionalmente de um restaurante.
+    // Usada apenas nas frações de hora das bordas de um período; as horas cheias vêm de vendas_consolidadas
+    @Query("SELECT new com.deliverytech.delivery.dto.ResumoVendas(COUNT(p), COALESCE(SUM(p.valorTotal), 0)) " +
+            "FROM Pedido p WHERE p.dataPedido >= :inicio AND p.dataPedido < :fim " +
+            "AND p.status <> com.deliverytech.delivery.enums.StatusPedido.CANCELADO " +
+            "AND (:restauranteId IS NULL OR p.restaurante.id = :restauranteId)")
+    ResumoVendas resumirVendas(@Param("inicio") LocalDateTime inicio,
+                               @Param("fim") LocalDateTime fim,
+                               @Param("restauranteId") Long restauranteId);
+
     // Valor total de vendas por período
     @Query("SELECT SUM(p.valorTotal) FROM Pedido p WHERE p.dataPedido BETWEEN :inicio AND :fim " +
             "AND p.status NOT IN ('CANCELADO')")
@@ -3,8 +3,14 @@ package com.deliverytech.delivery.repository;
 import com.deliverytech.delivery.entity.Produto;
 import com.deliverytech.delivery.entity.Restaurante;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,18 +19,20 @@ import java.util.List;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+    // Paginação por cursor (keyset) sobre o ID
+    List<Produto> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
     // Buscar produtos por restaurante e disponíveis
     List<Produto> findByRestauranteAndDisponivelTrue(Restaurante restaurante);
 
-    // Buscar produtos por restaurante ID e disponíveis
-    List<Produto> findByRestauranteIdAndDisponivelTrue(Long restauranteId);
+    // Buscar produtos por restaurante ID e disponíveis (cardápio). Consulta explícita: o finder derivado fazia
+    // LEFT JOIN em restaurantes e o H2 varria produtos; filtrando pela FK usa idx_produtos_restaurante_disponivel
+    @Query("SELECT p FROM Produto p WHERE p.restaurante.id = :restauranteId AND p.disponivel = true")
+    List<Produto> findByRestauranteIdAndDisponivelTrue(@Param("restauranteId") Long restauranteId);
 
     // Buscar produtos por categoria e disponíveis
     List<Produto> findByCategoriaAndDisponivelTrue(String categoria);
 
-    // Buscar produtos por nome contendo (case insensitive) e disponíveis
-    List<Produto> findByNomeContainingIgnoreCaseAndDisponivelTrue(String nome);
-
     // Buscar produtos por faixa de preço e disponíveis
     List<Produto> findByPrecoBetweenAndDisponivelTrue(BigDecimal precoMin, BigDecimal precoMax);
 
@@ -40,25 +48,31 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     List<Produto> findByDisponivelTrue();
     List<Produto> findByAtivoTrueAndDisponivelTrue();
 
-    // Buscar produtos em promoção e disponíveis
+    // Buscar produtos em promoção e disponíveis (cache de consultas)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Produto> findByPromocaoTrueAndDisponivelTrue();
 
     // Buscar produtos por restaurante ID, ativos e disponíveis
     @Query("SELECT p FROM Produto p WHERE p.ativo = true AND p.disponivel = true AND p.restaurante.id = :restauranteId")
     List<Produto> findProdutosDisponiveisPorRestaurante(@Param("restauranteId") Long restauranteId);
 
-    // Buscar produtos em todas as categorias
+    // Buscar produtos em todas as categorias (cache de consultas)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT p.categoria FROM Produto p WHERE p.ativo = true")
     List<String> findAllCategorias();
 
-    // Buscar produtos por preço efetivo (considerando promoção) menor
-    @Query("SELECT p FROM Produto p WHERE p.ativo = true AND p.disponivel = true AND " +
-           "(p.promocao = false OR (p.promocao = true AND p.precoPromocional <= :precoMax)) AND " +
-           "(p.promocao = true OR (p.promocao = false AND p.preco <= :precoMax))")
+    // Buscar produtos por preço efetivo (considerando promoção) menor ou igual - usa idx_produtos_preco_efetivo
+    @Query("SELECT p FROM Produto p WHERE p.precoEfetivo <= :precoMax " +
+           "AND p.ativo = true AND p.disponivel = true ORDER BY p.precoEfetivo ASC")
     List<Produto> findByPrecoEfetivoLessThanEqual(@Param("precoMax") BigDecimal precoMax);
 
+    // Buscar produtos por faixa de preço efetivo (considerando promoção) - usa idx_produtos_preco_efetivo
+    @Query("SELECT p FROM Produto p WHERE p.precoEfetivo BETWEEN :precoMin AND :precoMax " +
+           "AND p.ativo = true AND p.disponivel = true ORDER BY p.precoEfetivo ASC")
+    List<Produto> findByPrecoEfetivoBetween(@Param("precoMin") BigDecimal precoMin, @Param("precoMax") BigDecimal precoMax);
+
     // Query customizada - Buscar produtos mais vendidos
-    @Query("SELECT p FROM Produto p JOIN p.itensPedido ip " +
+    @Query("SELECT p FROM ItemPedido ip JOIN ip.produto p " +
             "GROUP BY p ORDER BY COUNT(ip) DESC")
     List<Produto> findProdutosMaisVendidos();
 
@@ -68,6 +82,10 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     List<Produto> findByRestauranteAndCategoria(@Param("restauranteId") Long restauranteId,
                                                 @Param("categoria") String categoria);
 
+    // Unidades vendidas por produto (popularidade das sugestões de busca)
+    @Query("SELECT ip.produto.id, SUM(ip.quantidade) FROM ItemPedido ip GROUP BY ip.produto.id")
+    List<Object[]> somarUnidadesVendidasPorProduto();
+
     // Contar produtos por restaurante
     @Query("SELECT COUNT(p) FROM Produto p WHERE p.restaurante.id = :restauranteId AND p.disponivel = true")
     Long countByRestauranteId(@Param("restauranteId") Long restauranteId);
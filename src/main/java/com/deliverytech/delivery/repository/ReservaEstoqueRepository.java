@@ -0,0 +1,53 @@
+package com.deliverytech.delivery.repository;
+
+import com.deliverytech.delivery.entity.ReservaEstoque;
+import com.deliverytech.delivery.enums.StatusReserva;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservaEstoqueRepository extends JpaRepository<ReservaEstoque, Long> {
+
+    // Reservas de um pedido em um status
+    List<ReservaEstoque> findByPedidoIdAndStatus(Long pedidoId, StatusReserva status);
+
+    // Muda o status das reservas de um pedido (somente as que estão no status esperado)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ReservaEstoque r SET r.status = :novoStatus, r.expiraEm = null " +
+           "WHERE r.pedidoId = :pedidoId AND r.status = :statusAtual")
+    int alterarStatus(@Param("pedidoId") Long pedidoId,
+                      @Param("statusAtual") StatusReserva statusAtual,
+                      @Param("novoStatus") StatusReserva novoStatus);
+
+    // Pedido confirmado: a reserva deixa de ter prazo
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ReservaEstoque r SET r.expiraEm = null " +
+           "WHERE r.pedidoId = :pedidoId AND r.status = com.deliverytech.delivery.enums.StatusReserva.ATIVA")
+    int removerPrazo(@Param("pedidoId") Long pedidoId);
+
+    // Pedidos com reservas vencidas (usa idx_reservas_estoque_status_expira)
+    @Query("SELECT DISTINCT r.pedidoId FROM ReservaEstoque r " +
+           "WHERE r.status = com.deliverytech.delivery.enums.StatusReserva.ATIVA AND r.expiraEm < :agora")
+    List<Long> findPedidosComReservaVencida(@Param("agora") LocalDateTime agora, Limit limite);
+
+    // Quantidade reservada por produto nos status informados
+    @Query("SELECT r.produtoId, SUM(r.quantidade) FROM ReservaEstoque r WHERE r.status IN :status GROUP BY r.produtoId")
+    List<Object[]> somarPorProduto(@Param("status") Collection<StatusReserva> status);
+
+    // Reservas consumidas ainda não descontadas de estoques_produtos, na ordem de criação
+    List<ReservaEstoque> findByStatusOrderByIdAsc(StatusReserva status, Limit limite);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ReservaEstoque r SET r.status = com.deliverytech.delivery.enums.StatusReserva.BAIXADA " +
+           "WHERE r.id IN :ids AND r.status = com.deliverytech.delivery.enums.StatusReserva.CONSUMIDA")
+    int marcarBaixadas(@Param("ids") Collection<Long> ids);
+}
@@ -2,8 +2,14 @@ package com.deliverytech.delivery.repository;
 
 import com.deliverytech.delivery.entity.Restaurante;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,23 +21,27 @@ import java.util.Optional;
 @Repository
 public interface RestauranteRepository extends JpaRepository<Restaurante, Long> {
     
+    // Paginação por cursor (keyset) sobre o ID
+    List<Restaurante> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
     // Buscar por nome
     Optional<Restaurante> findByNome(String nome);
     
-    // Buscar restaurantes ativos
+    // Buscar restaurantes ativos (cache de consultas)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Restaurante> findByAtivoTrue();
     
     // Buscar por categoria
     List<Restaurante> findByCategoria(String categoria);
     
-    // Buscar por nome contendo (case insensitive) e ativos
-    List<Restaurante> findByNomeContainingIgnoreCaseAndAtivoTrue(String nome);
+    // Restaurantes ativos com coordenadas (carga da grade geográfica)
+    List<Restaurante> findByAtivoTrueAndLatitudeNotNullAndLongitudeNotNull();
 
     // Buscar por avaliação mínima
     List<Restaurante> findByAvaliacaoGreaterThanEqualAndAtivoTrue(BigDecimal avaliacao);
 
     // Ordenar por avaliação (descendente)
-    List<Restaurante> findByAAtivoTrueOrderByAvaliacaoDesc();
+    List<Restaurante> findByAtivoTrueOrderByAvaliacaoDesc();
 
     // Buscar por categoria e ativos
     List<Restaurante> findByCategoriaAndAtivoTrue(String categoria);
@@ -53,6 +63,10 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
     @Query("SELECT r FROM Restaurante r WHERE r.taxaEntrega BETWEEN :min AND :max AND r.ativo = true")
     List<Restaurante> findByTaxaEntregaBetween(@Param("min") BigDecimal min, @Param("max") BigDecimal max);
     
+    // Pedidos recebidos por restaurante (popularidade das sugestões de busca)
+    @Query("SELECT p.restaurante.id, COUNT(p) FROM Pedido p GROUP BY p.restaurante.id")
+    List<Object[]> contarPedidosPorRestaurante();
+
     // Categorias disponíveis
     @Query("SELECT DISTINCT r.categoria FROM Restaurante r WHERE r.ativo = true ORDER BY r.categoria")
     List<String> findCategoriasDisponiveis();
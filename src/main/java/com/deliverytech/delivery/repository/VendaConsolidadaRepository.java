@@ -0,0 +1,92 @@
+package com.deliverytech.delivery.repository;
+
+import com.deliverytech.delivery.dto.ResumoVendas;
+import com.deliverytech.delivery.entity.ChaveVendaConsolidada;
+import com.deliverytech.delivery.entity.VendaConsolidada;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VendaConsolidadaRepository extends JpaRepository<VendaConsolidada, ChaveVendaConsolidada> {
+
+    // Soma (ou subtrai, com valores negativos) um pedido no balde restaurante/hora/status em um único comando.
+    // Os comandos nativos declaram as tabelas que tocam: sem isso o Hibernate esvaziaria todo o cache de
+    // segundo nível a cada execução
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vendas_consolidadas"))
+    @Query(value = """
+            MERGE INTO vendas_consolidadas v
+            USING (VALUES (CAST(:restauranteId AS BIGINT), CAST(:hora AS TIMESTAMP), CAST(:status AS VARCHAR(50)),
+                           CAST(:quantidade AS BIGINT), CAST(:valor AS NUMERIC(14, 2))))
+                AS d (restaurante_id, hora, status, quantidade, valor_total)
+            ON v.restaurante_id = d.restaurante_id AND v.hora = d.hora AND v.status = d.status
+            WHEN MATCHED THEN UPDATE SET quantidade = v.quantidade + d.quantidade,
+                                         valor_total = v.valor_total + d.valor_total
+            WHEN NOT MATCHED THEN INSERT (restaurante_id, hora, status, quantidade, valor_total)
+                                  VALUES (d.restaurante_id, d.hora, d.status, d.quantidade, d.valor_total)
+            """, nativeQuery = true)
+    int acumular(@Param("restauranteId") Long restauranteId,
+                 @Param("hora") LocalDateTime hora,
+                 @Param("status") String status,
+                 @Param("quantidade") long quantidade,
+                 @Param("valor") BigDecimal valor);
+
+    // Vendas (pedidos não cancelados) das horas em [inicio, fim), opcionalmente de um restaurante
+    @Query("SELECT new com.deliverytech.delivery.dto.ResumoVendas(COALESCE(SUM(v.quantidade), 0), COALESCE(SUM(v.valorTotal), 0)) " +
+            "FROM VendaConsolidada v WHERE v.chave.hora >= :inicio AND v.chave.hora < :fim " +
+            "AND v.chave.status <> com.deliverytech.delivery.enums.StatusPedido.CANCELADO " +
+            "AND (:restauranteId IS NULL OR v.chave.restauranteId = :restauranteId)")
+    ResumoVendas somarVendas(@Param("inicio") LocalDateTime inicio,
+                             @Param("fim") LocalDateTime fim,
+                             @Param("restauranteId") Long restauranteId);
+
+    // Pedidos por status atual
+    @Query("SELECT v.chave.status, SUM(v.quantidade) FROM VendaConsolidada v GROUP BY v.chave.status")
+    List<Object[]> contarPedidosPorStatus();
+
+    // Reconstrução (backfill) dos baldes das horas em [inicio, fim) a partir da tabela de pedidos
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vendas_consolidadas"))
+    @Query(value = "DELETE FROM vendas_consolidadas WHERE hora >= :inicio AND hora < :fim", nativeQuery = true)
+    int apagarPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Modifying
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vendas_consolidadas"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pedidos")
+    })
+    @Query(value = """
+            INSERT INTO vendas_consolidadas (restaurante_id, hora, status, quantidade, valor_total)
+            SELECT restaurante_id, DATE_TRUNC('HOUR', data_pedido), status, COUNT(*), SUM(valor_total)
+            FROM pedidos
+            WHERE data_pedido >= :inicio AND data_pedido < :fim
+            GROUP BY restaurante_id, DATE_TRUNC('HOUR', data_pedido), status
+            """, nativeQuery = true)
+    int consolidarPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Modifying
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vendas_consolidadas"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pedidos")
+    })
+    @Query(value = """
+            INSERT INTO vendas_consolidadas (restaurante_id, hora, status, quantidade, valor_total)
+            SELECT restaurante_id, DATE_TRUNC('HOUR', data_pedido), status, COUNT(*), SUM(valor_total)
+            FROM pedidos
+            GROUP BY restaurante_id, DATE_TRUNC('HOUR', data_pedido), status
+            """, nativeQuery = true)
+    int consolidarTudo();
+}
@@ -0,0 +1,179 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.event.PedidoStatusAlteradoEvent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Barramento em memória dos eventos de status de pedidos, com fan-out por restaurante para assinantes SSE.
+// Cada assinante tem uma fila limitada drenada por uma thread virtual própria: quem publica nunca espera
+// pela rede, e um cliente lento que deixa a fila encher é desconectado (o EventSource reconecta sozinho).
+@Component
+public class BarramentoEventosPedido implements MeterBinder {
+
+    // Chave dos assinantes de todos os restaurantes (entregadores, painéis gerais)
+    private static final Long TODOS = 0L;
+
+    private final Map<Long, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final ExecutorService entregas = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("sse-heartbeat").factory());
+    private final AtomicLong sequencia = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+
+    private final int capacidadeBuffer;
+    private final Duration timeout;
+
+    public BarramentoEventosPedido(@Value("${delivery.eventos.sse.capacidade-buffer:256}") int capacidadeBuffer,
+                                   @Value("${delivery.eventos.sse.timeout:30m}") Duration timeout,
+                                   @Value("${delivery.eventos.sse.heartbeat:15s}") Duration intervaloHeartbeat) {
+        this.capacidadeBuffer = capacidadeBuffer;
+        this.timeout = timeout;
+        long intervalo = intervaloHeartbeat.toMillis();
+        heartbeat.scheduleAtFixedRate(this::enviarHeartbeat, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    // restauranteId nulo assina os eventos de todos os restaurantes
+    public SseEmitter assinar(Long restauranteId) {
+        Long chave = restauranteId != null ? restauranteId : TODOS;
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Assinante assinante = new Assinante(chave, emitter, new ArrayBlockingQueue<>(capacidadeBuffer));
+
+        assinantes.computeIfAbsent(chave, k -> ConcurrentHashMap.newKeySet()).add(assinante);
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+        return emitter;
+    }
+
+    // Publicado pela máquina de estados; só é distribuído depois do commit da transição
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(PedidoStatusAlteradoEvent evento) {
+        String id = Long.toString(sequencia.incrementAndGet());
+        distribuir(assinantes.get(evento.restauranteId()), id, evento);
+        distribuir(assinantes.get(TODOS), id, evento);
+    }
+
+    private void distribuir(Set<Assinante> destinatarios, String id, PedidoStatusAlteradoEvent evento) {
+        if (destinatarios == null) {
+            return;
+        }
+        for (Assinante assinante : destinatarios) {
+            assinante.enfileirar(SseEmitter.event().id(id).name("pedido-status").data(evento));
+        }
+    }
+
+    private void enviarHeartbeat() {
+        for (Set<Assinante> destinatarios : assinantes.values()) {
+            for (Assinante assinante : destinatarios) {
+                assinante.enfileirar(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    private void remover(Assinante assinante) {
+        Set<Assinante> destinatarios = assinantes.get(assinante.chave);
+        if (destinatarios != null) {
+            destinatarios.remove(assinante);
+        }
+    }
+
+    public int totalAssinantes() {
+        return assinantes.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.sse.assinantes", this, BarramentoEventosPedido::totalAssinantes)
+                .description("Assinantes SSE conectados ao barramento de eventos de pedidos")
+                .register(registry);
+        FunctionCounter.builder("delivery.sse.descartados", descartados, AtomicLong::doubleValue)
+                .description("Assinantes SSE desconectados por não acompanharem o ritmo dos eventos")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        heartbeat.shutdownNow();
+        entregas.shutdownNow();
+        for (Set<Assinante> destinatarios : assinantes.values()) {
+            for (Assinante assinante : destinatarios) {
+                assinante.emitter.complete();
+            }
+        }
+        assinantes.clear();
+    }
+
+    private final class Assinante {
+
+        private final Long chave;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> fila;
+        private final AtomicBoolean drenando = new AtomicBoolean();
+
+        private Assinante(Long chave, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> fila) {
+            this.chave = chave;
+            this.emitter = emitter;
+            this.fila = fila;
+        }
+
+        private void enfileirar(SseEmitter.SseEventBuilder mensagem) {
+            if (!fila.offer(mensagem)) {
+                // Fila cheia: o cliente não acompanha o ritmo, então é desconectado em vez de reter memória
+                descartados.incrementAndGet();
+                remover(this);
+                emitter.complete();
+                return;
+            }
+            agendarDrenagem();
+        }
+
+        private void agendarDrenagem() {
+            if (drenando.compareAndSet(false, true)) {
+                entregas.execute(this::drenar);
+            }
+        }
+
+        private void drenar() {
+            try {
+                SseEmitter.SseEventBuilder mensagem;
+                while ((mensagem = fila.poll()) != null) {
+                    emitter.send(mensagem);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Conexão encerrada pelo cliente
+                remover(this);
+                return;
+            } finally {
+                drenando.set(false);
+            }
+            // Mensagens enfileiradas entre o último poll e a liberação da flag
+            if (!fila.isEmpty()) {
+                agendarDrenagem();
+            }
+        }
+    }
+}
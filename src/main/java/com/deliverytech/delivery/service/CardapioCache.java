@@ -0,0 +1,72 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.EstatisticasCache;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.util.AposCommit;
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+// Cache do cardápio por restaurante (Caffeine, política W-TinyLFU limitada por tamanho).
+// As escritas do ProdutoService invalidam apenas o restaurante afetado, após o commit.
+@Component
+public class CardapioCache implements MeterBinder {
+
+    // somenteAtivos = true: cardápio de produtos ativos e disponíveis; false: apenas disponíveis
+    private record ChaveCardapio(Long restauranteId, boolean somenteAtivos) {}
+
+    private final Cache<ChaveCardapio, List<Produto>> cache;
+
+    public CardapioCache(@Value("${delivery.cache.cardapio.tamanho-maximo:1000}") long tamanhoMaximo,
+                         @Value("${delivery.cache.cardapio.expiracao:10m}") Duration expiracao) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    // Carregado do primário: uma réplica atrasada poderia repor no cache o cardápio anterior a uma invalidação
+    public List<Produto> buscar(Long restauranteId, boolean somenteAtivos, Function<Long, List<Produto>> carregador) {
+        return cache.get(new ChaveCardapio(restauranteId, somenteAtivos),
+                chave -> LeituraPrimario.executar(() -> List.copyOf(carregador.apply(chave.restauranteId()))));
+    }
+
+    public void invalidar(Long restauranteId) {
+        if (restauranteId == null) {
+            return;
+        }
+        AposCommit.executar(() -> cache.invalidateAll(List.of(
+                new ChaveCardapio(restauranteId, true),
+                new ChaveCardapio(restauranteId, false))));
+    }
+
+    // Publica os contadores do cache como métricas cache.* (cache=cardapio)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "cardapio");
+    }
+
+    public EstatisticasCache estatisticas() {
+        CacheStats stats = cache.stats();
+        return new EstatisticasCache(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate());
+    }
+}
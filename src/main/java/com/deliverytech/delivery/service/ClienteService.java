@@ -1,8 +1,13 @@
 package com.deliverytech.delivery.service;
 
+import com.deliverytech.delivery.dto.PaginaCursor;
 import com.deliverytech.delivery.entity.Cliente;
 import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.util.CursorUtil;
 
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,6 +16,7 @@ import java.util.Optional;
 
 @Service
 @Transactional
+@Timed(value = "delivery.service", histogram = true)
 public class ClienteService {
     
     private final ClienteRepository clienteRepository;
@@ -19,22 +25,31 @@ public class ClienteService {
         this.clienteRepository = clienteRepository;
     }
     
-    public List<Cliente> listarTodos() {
-        return clienteRepository.findAll();
+    @Transactional(readOnly = true)
+    public PaginaCursor<Cliente> listarPagina(String cursor, Integer limite, boolean incluirTotal) {
+        int tamanho = CursorUtil.tamanhoPagina(limite);
+        List<Cliente> clientes = clienteRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorUtil.decodificarId(cursor), Limit.of(tamanho + 1));
+        Long total = incluirTotal ? clienteRepository.count() : null;
+        return PaginaCursor.de(clientes, tamanho, c -> CursorUtil.codificar(c.getId()), total);
     }
     
+    @Transactional(readOnly = true)
     public List<Cliente> listarAtivos() {
         return clienteRepository.findByAtivoTrue();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Cliente> buscarPorId(Long id) {
         return clienteRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Cliente> buscarPorEmail(String email) {
         return clienteRepository.findByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public List<Cliente> buscarPorNome(String nome) {
         return clienteRepository.findByNomeContainingIgnoreCase(nome);
     }
@@ -61,6 +76,8 @@ public class ClienteService {
             cliente.setEmail(clienteAtualizado.getEmail());
             cliente.setTelefone(clienteAtualizado.getTelefone());
             cliente.setEndereco(clienteAtualizado.getEndereco());
+            cliente.setLatitude(clienteAtualizado.getLatitude());
+            cliente.setLongitude(clienteAtualizado.getLongitude());
             cliente.setAtivo(clienteAtualizado.getAtivo());
             
             return clienteRepository.save(cliente);
@@ -88,6 +105,7 @@ public class ClienteService {
         }
     }
 
+    @Transactional(readOnly = true)
     public boolean existeEmail(String email) {
         return clienteRepository.existsByEmail(email);
     }
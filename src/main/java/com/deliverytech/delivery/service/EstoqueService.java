@@ -0,0 +1,284 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.EstoqueProduto;
+import com.deliverytech.delivery.entity.EstoqueFisico;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.ReservaEstoque;
+import com.deliverytech.delivery.enums.StatusReserva;
+import com.deliverytech.delivery.exception.EstoqueInsuficienteException;
+import com.deliverytech.delivery.repository.EstoqueFisicoRepository;
+import com.deliverytech.delivery.repository.ReservaEstoqueRepository;
+import com.deliverytech.delivery.util.AposCommit;
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reserva de estoque dos pedidos. O disponível de cada produto com controle de estoque fica em um contador
+// em memória decrementado por compare-and-set, então pedidos simultâneos do mesmo item não disputam a linha
+// do produto no banco. Cada reserva é gravada em reservas_estoque na transação do pedido:
+// ATIVA na criação (com prazo enquanto PENDENTE) -> CONSUMIDA no preparo | LIBERADA no cancelamento.
+// O desconto em estoques_produtos é feito depois, em lote, a partir das reservas CONSUMIDA (gravarBaixas).
+@Service
+@Transactional
+@Timed(value = "delivery.service", histogram = true)
+@Order(0)
+public class EstoqueService implements GanchoTransicaoPedido, SmartInitializingSingleton, MeterBinder {
+
+    private static final EnumSet<StatusReserva> EM_ABERTO = EnumSet.of(StatusReserva.ATIVA, StatusReserva.CONSUMIDA);
+
+    private final Map<Long, AtomicInteger> disponiveis = new ConcurrentHashMap<>();
+    private final AtomicLong recusadas = new AtomicLong();
+    // Pedidos ainda não gravados cujo estoque já foi separado (importação), até o gancho de criação gravar as reservas
+    private final Map<Pedido, Map<Long, Integer>> separadosAntecipadamente =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final EstoqueFisicoRepository estoqueFisicoRepository;
+    private final ReservaEstoqueRepository reservaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration prazoReserva;
+    private final int tamanhoLoteBaixa;
+
+    public EstoqueService(EstoqueFisicoRepository estoqueFisicoRepository,
+                          ReservaEstoqueRepository reservaRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${delivery.estoque.reserva.prazo:15m}") Duration prazoReserva,
+                          @Value("${delivery.estoque.baixa.tamanho-lote:1000}") int tamanhoLoteBaixa) {
+        this.estoqueFisicoRepository = estoqueFisicoRepository;
+        this.reservaRepository = reservaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.prazoReserva = prazoReserva;
+        this.tamanhoLoteBaixa = tamanhoLoteBaixa;
+    }
+
+    // Carga inicial: disponível = estoque gravado - reservas ainda não descontadas (ATIVA e CONSUMIDA)
+    @Override
+    public void afterSingletonsInstantiated() {
+        LeituraPrimario.executar(() -> transactionTemplate.executeWithoutResult(status -> {
+            for (EstoqueFisico estoque : estoqueFisicoRepository.findAll()) {
+                disponiveis.put(estoque.getProdutoId(), new AtomicInteger(estoque.getQuantidade()));
+            }
+            for (Object[] linha : reservaRepository.somarPorProduto(EM_ABERTO)) {
+                AtomicInteger disponivel = disponiveis.get((Long) linha[0]);
+                if (disponivel != null) {
+                    disponivel.addAndGet(-((Number) linha[1]).intValue());
+                }
+            }
+        }));
+    }
+
+    @Override
+    public void aoTransicionar(TransicaoPedido transicao) {
+        Long pedidoId = transicao.pedido().getId();
+        if (transicao.isCriacao()) {
+            reservar(transicao.pedido());
+            return;
+        }
+        switch (transicao.statusNovo()) {
+            case CONFIRMADO -> reservaRepository.removerPrazo(pedidoId);
+            case PREPARANDO -> reservaRepository.alterarStatus(pedidoId, StatusReserva.ATIVA, StatusReserva.CONSUMIDA);
+            case CANCELADO -> liberarReservas(pedidoId);
+            default -> { }
+        }
+    }
+
+    // Grava as reservas do pedido recém-criado, separando o estoque agora se a importação ainda não o fez
+    private void reservar(Pedido pedido) {
+        Map<Long, Integer> reservadas = separadosAntecipadamente.remove(pedido);
+        if (reservadas == null) {
+            Map<Long, Integer> separadas = separar(solicitadas(pedido));
+            AposCommit.seDesfeita(() -> devolver(separadas));
+            reservadas = separadas;
+        }
+        if (reservadas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime expiraEm = LocalDateTime.now().plus(prazoReserva);
+        List<ReservaEstoque> reservas = new ArrayList<>(reservadas.size());
+        reservadas.forEach((produtoId, quantidade) ->
+                reservas.add(new ReservaEstoque(pedido.getId(), produtoId, quantidade, expiraEm)));
+        reservaRepository.saveAll(reservas);
+    }
+
+    // Importação em blocos: separa o estoque de um pedido validado antes de gravá-lo. Em vez de lançar exceção,
+    // o que marcaria a transação do bloco inteiro para desfazer, devolve o motivo da recusa, e a importação
+    // rejeita só aquela linha. O gancho de criação depois grava as reservas do que já foi separado
+    public Optional<String> separarAntecipadamente(Pedido pedidoNovo) {
+        Map<Long, Integer> separadas;
+        try {
+            separadas = separar(solicitadas(pedidoNovo));
+        } catch (EstoqueInsuficienteException e) {
+            return Optional.of(e.getMessage());
+        }
+        if (!separadas.isEmpty()) {
+            separadosAntecipadamente.put(pedidoNovo, separadas);
+            AposCommit.seDesfeita(() -> {
+                separadosAntecipadamente.remove(pedidoNovo);
+                devolver(separadas);
+            });
+        }
+        return Optional.empty();
+    }
+
+    // Quantidades por produto com controle de estoque, em ordem de ID
+    private Map<Long, Integer> solicitadas(Pedido pedido) {
+        Map<Long, Integer> solicitadas = new TreeMap<>();
+        for (ItemPedido item : pedido.getItens()) {
+            Long produtoId = item.getProduto().getId();
+            if (disponiveis.containsKey(produtoId)) {
+                solicitadas.merge(produtoId, item.getQuantidade(), Integer::sum);
+            }
+        }
+        return solicitadas;
+    }
+
+    // Retira do disponível cada quantidade; se alguma não couber, devolve o que já foi retirado e recusa
+    private Map<Long, Integer> separar(Map<Long, Integer> solicitadas) {
+        Map<Long, Integer> separadas = new TreeMap<>();
+        for (Map.Entry<Long, Integer> solicitada : solicitadas.entrySet()) {
+            AtomicInteger disponivel = disponiveis.get(solicitada.getKey());
+            if (disponivel != null && !retirar(disponivel, solicitada.getValue())) {
+                devolver(separadas);
+                recusadas.incrementAndGet();
+                throw new EstoqueInsuficienteException(solicitada.getKey(), solicitada.getValue(), disponivel.get());
+            }
+            separadas.put(solicitada.getKey(), solicitada.getValue());
+        }
+        return separadas;
+    }
+
+    // Devolve ao disponível as reservas ATIVA do pedido (cancelamento, expiração ou exclusão)
+    public void liberarReservas(Long pedidoId) {
+        List<ReservaEstoque> ativas = reservaRepository.findByPedidoIdAndStatus(pedidoId, StatusReserva.ATIVA);
+        if (ativas.isEmpty()
+                || reservaRepository.alterarStatus(pedidoId, StatusReserva.ATIVA, StatusReserva.LIBERADA) == 0) {
+            return;
+        }
+        Map<Long, Integer> liberadas = new TreeMap<>();
+        for (ReservaEstoque reserva : ativas) {
+            liberadas.merge(reserva.getProdutoId(), reserva.getQuantidade(), Integer::sum);
+        }
+        AposCommit.executar(() -> devolver(liberadas));
+    }
+
+    // Pedidos ainda PENDENTE cujo prazo de reserva venceu. Lê do primário: numa réplica atrasada um pedido
+    // já confirmado ainda apareceria como PENDENTE e seria levado ao cancelamento
+    @Transactional(readOnly = true)
+    public List<Long> buscarPedidosComReservaVencida(int limite) {
+        return LeituraPrimario.executar(() ->
+                reservaRepository.findPedidosComReservaVencida(LocalDateTime.now(), Limit.of(limite)));
+    }
+
+    // Gravação em segundo plano: desconta de estoques_produtos as reservas consumidas, um UPDATE por produto
+    // (em ordem de ID, para gravações concorrentes travarem as linhas na mesma ordem), e as marca como BAIXADA
+    public int gravarBaixas() {
+        List<ReservaEstoque> consumidas = reservaRepository.findByStatusOrderByIdAsc(
+                StatusReserva.CONSUMIDA, Limit.of(tamanhoLoteBaixa));
+        if (consumidas.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> porProduto = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(consumidas.size());
+        for (ReservaEstoque reserva : consumidas) {
+            porProduto.merge(reserva.getProdutoId(), reserva.getQuantidade().longValue(), Long::sum);
+            ids.add(reserva.getId());
+        }
+        porProduto.forEach(estoqueFisicoRepository::baixar);
+        if (reservaRepository.marcarBaixadas(ids) != ids.size()) {
+            // Outra gravação concorrente já baixou parte do lote: desfaz esta para não descontar duas vezes
+            throw new IllegalStateException("Reservas de estoque baixadas por outra gravação concorrente");
+        }
+        return ids.size();
+    }
+
+    // Entrada (ou ajuste, com quantidade negativa) de estoque; inicia o controle se o produto ainda não tinha
+    public EstoqueProduto adicionarEstoque(Long produtoId, int quantidade) {
+        if (estoqueFisicoRepository.adicionar(produtoId, quantidade) == 0) {
+            throw new RuntimeException("Produto não encontrado com id: " + produtoId);
+        }
+        AposCommit.executar(() -> disponiveis.computeIfAbsent(produtoId, id -> new AtomicInteger()).addAndGet(quantidade));
+        return consultar(produtoId);
+    }
+
+    @Transactional(readOnly = true)
+    public EstoqueProduto consultar(Long produtoId) {
+        AtomicInteger disponivel = disponiveis.get(produtoId);
+        return new EstoqueProduto(produtoId, disponivel != null ? disponivel.get() : null);
+    }
+
+    // Produto novo com estoque inicial (ainda sem reservas)
+    public void registrarProduto(Produto produto) {
+        if (produto.getEstoque() == null) {
+            return;
+        }
+        Long produtoId = produto.getId();
+        int estoque = produto.getEstoque();
+        estoqueFisicoRepository.save(new EstoqueFisico(produtoId, estoque));
+        AposCommit.executar(() -> disponiveis.put(produtoId, new AtomicInteger(estoque)));
+    }
+
+    public void removerProduto(Long produtoId) {
+        AposCommit.executar(() -> disponiveis.remove(produtoId));
+    }
+
+    private static boolean retirar(AtomicInteger disponivel, int quantidade) {
+        while (true) {
+            int atual = disponivel.get();
+            if (atual < quantidade) {
+                return false;
+            }
+            if (disponivel.compareAndSet(atual, atual - quantidade)) {
+                return true;
+            }
+        }
+    }
+
+    private void devolver(Map<Long, Integer> quantidades) {
+        quantidades.forEach((produtoId, quantidade) -> {
+            AtomicInteger disponivel = disponiveis.get(produtoId);
+            if (disponivel != null) {
+                disponivel.addAndGet(quantidade);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.estoque.produtos", disponiveis, Map::size)
+                .description("Produtos com controle de estoque em memória")
+                .register(registry);
+        FunctionCounter.builder("delivery.estoque.reservas.recusadas", recusadas, AtomicLong::doubleValue)
+                .description("Pedidos recusados por estoque insuficiente")
+                .register(registry);
+    }
+}
@@ -0,0 +1,9 @@
+package com.deliverytech.delivery.service;
+
+// Ponto de extensão da máquina de estados de pedidos: os beans que implementam esta interface
+// são chamados (na ordem de @Order) dentro da transação que gravou a transição.
+// Uma exceção lançada pelo gancho desfaz a transição inteira
+public interface GanchoTransicaoPedido {
+
+    void aoTransicionar(TransicaoPedido transicao);
+}
@@ -0,0 +1,26 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.entity.HistoricoStatusPedido;
+import com.deliverytech.delivery.repository.HistoricoStatusPedidoRepository;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Grava a data de cada status alcançado pelo pedido (linha do tempo do pedido)
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HistoricoStatusPedidoGancho implements GanchoTransicaoPedido {
+
+    private final HistoricoStatusPedidoRepository historicoRepository;
+
+    public HistoricoStatusPedidoGancho(HistoricoStatusPedidoRepository historicoRepository) {
+        this.historicoRepository = historicoRepository;
+    }
+
+    @Override
+    public void aoTransicionar(TransicaoPedido transicao) {
+        historicoRepository.save(new HistoricoStatusPedido(
+            transicao.pedido(), transicao.statusAnterior(), transicao.statusNovo(), transicao.data()));
+    }
+}
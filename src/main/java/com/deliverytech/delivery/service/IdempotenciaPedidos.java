@@ -0,0 +1,117 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.PedidoResponse;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.repository.ChaveIdempotenciaRepository;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.util.AposCommit;
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Deduplicação da criação de pedidos pelo cabeçalho Idempotency-Key. A chave é gravada em
+// chaves_idempotencia na mesma transação do pedido (duas requisições com a mesma chave não criam dois
+// pedidos) e a resposta fica em um cache Caffeine limitado por tamanho e validade, então uma nova
+// tentativa do cliente é respondida sem validar nem gravar o pedido de novo. Fora do cache (chave
+// removida por tamanho ou servidor reiniciado) o pedido é lido do banco, no estado atual.
+@Service
+@Transactional
+@Timed(value = "delivery.service", histogram = true)
+public class IdempotenciaPedidos implements MeterBinder {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    // Resposta original e fim da validade da chave (igual ao gravado no banco)
+    private record Registro(PedidoResponse resposta, LocalDateTime expiraEm) {}
+
+    private final Cache<String, Registro> cache;
+    private final AtomicLong repeticoes = new AtomicLong();
+
+    private final ChaveIdempotenciaRepository chaveRepository;
+    private final PedidoRepository pedidoRepository;
+    private final Duration validade;
+
+    public IdempotenciaPedidos(ChaveIdempotenciaRepository chaveRepository,
+                               PedidoRepository pedidoRepository,
+                               @Value("${delivery.idempotencia.validade:24h}") Duration validade,
+                               @Value("${delivery.idempotencia.tamanho-maximo:10000}") long tamanhoMaximo) {
+        this.chaveRepository = chaveRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.validade = validade;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(validade)
+                .recordStats()
+                .build();
+    }
+
+    // Resposta do pedido já criado com a chave, se ela ainda for válida
+    @Transactional(readOnly = true)
+    public Optional<PedidoResponse> buscar(String chave) {
+        validar(chave);
+        LocalDateTime agora = LocalDateTime.now();
+        Registro registro = cache.getIfPresent(chave);
+        if (registro == null) {
+            // No primário: a chave pode ter acabado de ser gravada por uma requisição concorrente
+            registro = LeituraPrimario.executar(() -> chaveRepository.findValida(chave, agora)
+                    .flatMap(c -> pedidoRepository.findComDetalhesById(c.getPedidoId())
+                            .map(pedido -> new Registro(PedidoResponse.de(pedido), c.getExpiraEm())))
+                    .orElse(null));
+            if (registro != null) {
+                cache.put(chave, registro);
+            }
+        }
+        if (registro == null || !registro.expiraEm().isAfter(agora)) {
+            return Optional.empty();
+        }
+        repeticoes.incrementAndGet();
+        return Optional.of(registro.resposta());
+    }
+
+    // Chamado na transação que criou o pedido; a resposta só entra no cache depois do commit
+    public void registrar(String chave, Pedido pedido) {
+        validar(chave);
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiraEm = agora.plus(validade);
+        chaveRepository.inserir(chave, pedido.getId(), agora, expiraEm);
+        Registro registro = new Registro(PedidoResponse.de(pedido), expiraEm);
+        AposCommit.executar(() -> cache.put(chave, registro));
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.idempotencia.intervalo-limpeza:10m}")
+    public void apagarVencidas() {
+        chaveRepository.apagarVencidas(LocalDateTime.now());
+    }
+
+    private static void validar(String chave) {
+        if (chave == null || chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotencia-pedidos");
+        FunctionCounter.builder("delivery.idempotencia.repeticoes", repeticoes, AtomicLong::doubleValue)
+                .description("Criações de pedido repetidas respondidas com o pedido original")
+                .register(registry);
+    }
+}
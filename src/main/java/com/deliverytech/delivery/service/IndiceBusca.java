@@ -0,0 +1,168 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+import com.deliverytech.delivery.util.AposCommit;
+import com.deliverytech.delivery.util.IndiceTextual;
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Índices de busca textual de produtos (nome, categoria, descrição) e restaurantes (nome, categoria).
+// Só entram produtos ativos e disponíveis e restaurantes ativos. Carregados antes de o servidor aceitar
+// requisições e atualizados pelas escritas do ProdutoService e do RestauranteService, após o commit.
+// As mesmas alterações alimentam as sugestões de autocompletar (SugestoesBusca).
+@Component
+public class IndiceBusca implements SmartInitializingSingleton, MeterBinder {
+
+    // Pesos por campo: o nome conta mais que a categoria, que conta mais que a descrição
+    private static final float PESO_NOME = 3.0f;
+    private static final float PESO_CATEGORIA = 2.0f;
+    private static final float PESO_DESCRICAO = 1.0f;
+
+    private final IndiceTextual produtos = new IndiceTextual();
+    private final IndiceTextual restaurantes = new IndiceTextual();
+
+    private final ProdutoRepository produtoRepository;
+    private final RestauranteRepository restauranteRepository;
+    private final SugestoesBusca sugestoes;
+    private final TransactionTemplate transactionTemplate;
+    private final int limite;
+
+    public IndiceBusca(ProdutoRepository produtoRepository,
+                       RestauranteRepository restauranteRepository,
+                       SugestoesBusca sugestoes,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${delivery.busca.limite-resultados:50}") int limite) {
+        this.produtoRepository = produtoRepository;
+        this.restauranteRepository = restauranteRepository;
+        this.sugestoes = sugestoes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.limite = limite;
+    }
+
+    // Carga inicial, antes de o servidor web iniciar
+    @Override
+    public void afterSingletonsInstantiated() {
+        LeituraPrimario.executar(() -> transactionTemplate.executeWithoutResult(status -> {
+            sugestoes.carregarPopularidade(
+                    porId(produtoRepository.somarUnidadesVendidasPorProduto()),
+                    porId(restauranteRepository.contarPedidosPorRestaurante()));
+            produtoRepository.findByAtivoTrueAndDisponivelTrue().forEach(p -> indexarProduto(Documento.de(p)));
+            restauranteRepository.findByAtivoTrue().forEach(r -> indexarRestaurante(Documento.de(r)));
+        }));
+    }
+
+    // Os campos são lidos dentro da transação; o índice só muda depois do commit
+    public void atualizar(Produto produto) {
+        if (Boolean.TRUE.equals(produto.getAtivo()) && Boolean.TRUE.equals(produto.getDisponivel())) {
+            Documento documento = Documento.de(produto);
+            AposCommit.executar(() -> indexarProduto(documento));
+        } else {
+            removerProduto(produto.getId());
+        }
+    }
+
+    public void removerProduto(Long id) {
+        AposCommit.executar(() -> {
+            produtos.remover(id);
+            sugestoes.removerProduto(id);
+        });
+    }
+
+    public void atualizar(Restaurante restaurante) {
+        if (Boolean.TRUE.equals(restaurante.getAtivo())) {
+            Documento documento = Documento.de(restaurante);
+            AposCommit.executar(() -> indexarRestaurante(documento));
+        } else {
+            removerRestaurante(restaurante.getId());
+        }
+    }
+
+    public void removerRestaurante(Long id) {
+        AposCommit.executar(() -> {
+            restaurantes.remover(id);
+            sugestoes.removerRestaurante(id);
+        });
+    }
+
+    public List<Long> buscarProdutos(String consulta) {
+        return produtos.buscar(consulta, limite);
+    }
+
+    public List<Long> buscarRestaurantes(String consulta) {
+        return restaurantes.buscar(consulta, limite);
+    }
+
+    private void indexarProduto(Documento documento) {
+        produtos.indexar(documento.id(), documento.campos());
+        sugestoes.atualizarProduto(documento.id(), documento.nome(), documento.categoria());
+    }
+
+    private void indexarRestaurante(Documento documento) {
+        restaurantes.indexar(documento.id(), documento.campos());
+        sugestoes.atualizarRestaurante(documento.id(), documento.nome(), documento.categoria());
+    }
+
+    private static Map<Long, Long> porId(List<Object[]> linhas) {
+        Map<Long, Long> resultado = new HashMap<>();
+        for (Object[] linha : linhas) {
+            resultado.put((Long) linha[0], ((Number) linha[1]).longValue());
+        }
+        return resultado;
+    }
+
+    // Retrato dos campos textuais de um produto ou restaurante (restaurantes não têm descrição)
+    private record Documento(Long id, String nome, String categoria, String descricao) {
+
+        static Documento de(Produto produto) {
+            return new Documento(produto.getId(), produto.getNome(), produto.getCategoria(), produto.getDescricao());
+        }
+
+        static Documento de(Restaurante restaurante) {
+            return new Documento(restaurante.getId(), restaurante.getNome(), restaurante.getCategoria(), null);
+        }
+
+        Map<String, Float> campos() {
+            Map<String, Float> campos = new LinkedHashMap<>();
+            adicionar(campos, nome, PESO_NOME);
+            adicionar(campos, categoria, PESO_CATEGORIA);
+            adicionar(campos, descricao, PESO_DESCRICAO);
+            return campos;
+        }
+
+        private static void adicionar(Map<String, Float> campos, String texto, float peso) {
+            if (texto != null) {
+                campos.merge(texto, peso, Math::max);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.busca.documentos", produtos, IndiceTextual::totalDocumentos)
+                .tag("indice", "produtos")
+                .description("Documentos no índice de busca textual")
+                .register(registry);
+        Gauge.builder("delivery.busca.documentos", restaurantes, IndiceTextual::totalDocumentos)
+                .tag("indice", "restaurantes")
+                .description("Documentos no índice de busca textual")
+                .register(registry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.RestauranteProximo;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+import com.deliverytech.delivery.util.AposCommit;
+import com.deliverytech.delivery.util.GradeGeografica;
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Restaurantes ativos com coordenadas em uma grade geográfica em memória, junto com os campos usados nos
+// filtros (taxa de entrega, categoria) e no retorno, de modo que a busca por proximidade não acessa o banco.
+// Carregado antes de o servidor aceitar requisições e atualizado pelas escritas do RestauranteService.
+@Component
+public class MapaRestaurantes implements SmartInitializingSingleton, MeterBinder {
+
+    private record Local(Long id, String nome, String categoria, BigDecimal taxaEntrega, BigDecimal avaliacao,
+                         double latitude, double longitude, double raioEntregaKm) {
+
+        static Local de(Restaurante restaurante) {
+            return new Local(restaurante.getId(), restaurante.getNome(), restaurante.getCategoria(),
+                    restaurante.getTaxaEntrega(), restaurante.getAvaliacao(),
+                    restaurante.getLatitude(), restaurante.getLongitude(), restaurante.getRaioEntregaKm());
+        }
+    }
+
+    private final GradeGeografica grade;
+    private final Map<Long, Local> locais = new ConcurrentHashMap<>();
+
+    // Maior raio de entrega já indexado: limita a área varrida quando a consulta não informa um raio
+    private volatile double maiorRaioEntregaKm;
+
+    private final RestauranteRepository restauranteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double raioMaximoKm;
+    private final int limitePadrao;
+
+    public MapaRestaurantes(RestauranteRepository restauranteRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${delivery.geo.lado-celula-km:2}") double ladoCelulaKm,
+                            @Value("${delivery.geo.raio-maximo-km:50}") double raioMaximoKm,
+                            @Value("${delivery.geo.limite-resultados:50}") int limitePadrao) {
+        this.restauranteRepository = restauranteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.grade = new GradeGeografica(ladoCelulaKm);
+        this.raioMaximoKm = raioMaximoKm;
+        this.limitePadrao = limitePadrao;
+    }
+
+    // Carga inicial, antes de o servidor web iniciar
+    @Override
+    public void afterSingletonsInstantiated() {
+        LeituraPrimario.executar(() -> transactionTemplate.executeWithoutResult(status ->
+                restauranteRepository.findByAtivoTrueAndLatitudeNotNullAndLongitudeNotNull()
+                        .forEach(restaurante -> posicionar(Local.de(restaurante)))));
+    }
+
+    // Os campos são lidos dentro da transação; a grade só muda depois do commit
+    public void atualizar(Restaurante restaurante) {
+        Long id = restaurante.getId();
+        if (Boolean.TRUE.equals(restaurante.getAtivo())
+                && restaurante.getLatitude() != null && restaurante.getLongitude() != null) {
+            Local local = Local.de(restaurante);
+            AposCommit.executar(() -> posicionar(local));
+        } else {
+            remover(id);
+        }
+    }
+
+    public void remover(Long id) {
+        AposCommit.executar(() -> {
+            grade.remover(id);
+            locais.remove(id);
+        });
+    }
+
+    // Restaurantes ativos cujo raio de entrega alcança o ponto, do mais próximo ao mais distante.
+    // raioKm (opcional) limita ainda mais a distância; taxaMaxima e categoria são filtros opcionais
+    public List<RestauranteProximo> buscarQueEntregamEm(double latitude, double longitude, Double raioKm,
+                                                        BigDecimal taxaMaxima, String categoria, Integer limite) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordenadas inválidas: " + latitude + ", " + longitude);
+        }
+        double alcance = Math.min(maiorRaioEntregaKm, raioMaximoKm);
+        if (raioKm != null) {
+            alcance = Math.min(alcance, raioKm);
+        }
+        int tamanho = limite == null || limite <= 0 ? limitePadrao : Math.min(limite, limitePadrao);
+
+        return grade.buscar(latitude, longitude, alcance).stream()
+                .map(proximo -> {
+                    Local local = locais.get(proximo.id());
+                    return local == null ? null : paraResposta(local, proximo.distanciaKm());
+                })
+                .filter(r -> r != null && r.distanciaKm() <= r.raioEntregaKm())
+                .filter(r -> taxaMaxima == null || r.taxaEntrega().compareTo(taxaMaxima) <= 0)
+                .filter(r -> categoria == null || r.categoria().equalsIgnoreCase(categoria))
+                .sorted(Comparator.comparingDouble(RestauranteProximo::distanciaKm)
+                        .thenComparing(RestauranteProximo::id))
+                .limit(tamanho)
+                .toList();
+    }
+
+    private synchronized void posicionar(Local local) {
+        locais.put(local.id(), local);
+        grade.posicionar(local.id(), local.latitude(), local.longitude());
+        maiorRaioEntregaKm = Math.max(maiorRaioEntregaKm, local.raioEntregaKm());
+    }
+
+    private static RestauranteProximo paraResposta(Local local, double distanciaKm) {
+        return new RestauranteProximo(local.id(), local.nome(), local.categoria(), local.taxaEntrega(),
+                local.avaliacao(), local.raioEntregaKm(), Math.round(distanciaKm * 1000) / 1000.0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.geo.restaurantes", grade, GradeGeografica::totalPontos)
+                .description("Restaurantes ativos na grade geográfica em memória")
+                .register(registry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.event.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery.exception.ConflitoStatusPedidoException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Máquina de estados de pedidos: valida transições pela tabela de StatusPedido e, depois que a transição
+// é gravada, executa os ganchos registrados e publica um PedidoStatusAlteradoEvent
+@Component
+public class MaquinaEstadosPedido {
+
+    private final List<GanchoTransicaoPedido> ganchos;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MaquinaEstadosPedido(ObjectProvider<GanchoTransicaoPedido> ganchos,
+                                ApplicationEventPublisher eventPublisher) {
+        this.ganchos = ganchos.orderedStream().toList();
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void validar(Long pedidoId, StatusPedido statusAtual, StatusPedido novoStatus) {
+        if (!statusAtual.podeTransicionarPara(novoStatus)) {
+            throw new ConflitoStatusPedidoException(pedidoId, statusAtual, novoStatus);
+        }
+    }
+
+    // Registrar uma transição já aplicada ao pedido (statusAnterior nulo para pedidos recém-criados)
+    public void registrar(Pedido pedido, StatusPedido statusAnterior, LocalDateTime data) {
+        TransicaoPedido transicao = new TransicaoPedido(pedido, statusAnterior, pedido.getStatus(), data);
+        for (GanchoTransicaoPedido gancho : ganchos) {
+            gancho.aoTransicionar(transicao);
+        }
+
+        eventPublisher.publishEvent(new PedidoStatusAlteradoEvent(
+            pedido.getId(),
+            pedido.getNumeroPedido(),
+            pedido.getRestaurante().getId(),
+            pedido.getCliente().getId(),
+            statusAnterior,
+            pedido.getStatus(),
+            pedido.getValorTotal(),
+            pedido.getDataPedido(),
+            data
+        ));
+    }
+}
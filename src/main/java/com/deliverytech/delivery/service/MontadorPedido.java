@@ -0,0 +1,122 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import jakarta.persistence.EntityNotFoundException;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Regras de criação de pedidos: cliente e restaurante ativos, produtos ativos e do restaurante do pedido,
+// preços vigentes do produto. O número do pedido é gerado pelo NumeradorPedidos (o enviado pelo cliente é
+// ignorado). Só consulta as referências já carregadas (sem acesso ao banco nem transação),
+// então pode ser usado em paralelo pela importação em lote.
+@Component
+public class MontadorPedido {
+
+    private final NumeradorPedidos numerador;
+
+    public MontadorPedido(NumeradorPedidos numerador) {
+        this.numerador = numerador;
+    }
+
+    public Pedido montar(Pedido pedido, ReferenciasPedido referencias) {
+        // 1. Validar cliente existe e está ativo
+        if (pedido.getCliente() == null || pedido.getCliente().getId() == null) {
+            throw new RuntimeException("Cliente não informado");
+        }
+        Cliente cliente = referencias.clientes().get(pedido.getCliente().getId());
+        if (cliente == null || cliente.getAtivo() == null || !cliente.getAtivo().booleanValue()) {
+            throw new RuntimeException("Cliente inativo não pode fazer pedidos");
+        }
+
+        // 2. Validar restaurante existe e está ativo
+        if (pedido.getRestaurante() == null || pedido.getRestaurante().getId() == null) {
+            throw new RuntimeException("Restaurante não informado");
+        }
+        Restaurante restaurante = referencias.restaurantes().get(pedido.getRestaurante().getId());
+        if (restaurante == null) {
+            throw new RuntimeException("Restaurante não encontrado");
+        }
+        if (restaurante.getAtivo() == null || !restaurante.getAtivo().booleanValue()) {
+            throw new RuntimeException("Restaurante não está disponível");
+        }
+
+        // 3. Validar todos os produtos existem e estão disponíveis
+        if (pedido.getItens() == null || pedido.getItens().isEmpty()) {
+            throw new RuntimeException("Pedido sem itens");
+        }
+        List<ItemPedido> itensPedido = new ArrayList<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+
+        for (ItemPedido item : pedido.getItens()) {
+            Produto produto = produtoDoItem(item, referencias);
+
+            if (produto.getAtivo() == null || !produto.getAtivo().booleanValue()) {
+                throw new RuntimeException("Produto indisponível: " + produto.getNome());
+            }
+
+            if (!produto.getRestaurante().getId().equals(restaurante.getId())) {
+                throw new RuntimeException("Produto não pertence ao restaurante selecionado");
+            }
+
+            if (item.getQuantidade() == null || item.getQuantidade() <= 0) {
+                throw new RuntimeException("Quantidade inválida para o produto: " + produto.getNome());
+            }
+
+            // Criar item do pedido
+            ItemPedido itemNovo = new ItemPedido();
+            itemNovo.setProduto(produto);
+            itemNovo.setQuantidade(item.getQuantidade());
+            itemNovo.setPrecoUnitario(produto.getPreco());
+            itemNovo.setSubtotal(produto.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())));
+
+            itensPedido.add(itemNovo);
+            subtotal = subtotal.add(itemNovo.getSubtotal());
+        }
+
+        // 4. Calcular total do pedido
+        BigDecimal taxaEntrega = restaurante.getTaxaEntrega();
+        BigDecimal valorTotal = subtotal.add(taxaEntrega);
+
+        // 5. Montar pedido com os itens
+        Pedido pedidoNovo = new Pedido();
+        pedidoNovo.setNumeroPedido(numerador.proximo());
+        pedidoNovo.setObservacoes(pedido.getObservacoes());
+        pedidoNovo.setCliente(cliente);
+        pedidoNovo.setRestaurante(restaurante);
+        pedidoNovo.setDataPedido(LocalDateTime.now());
+        pedidoNovo.setStatus(StatusPedido.PENDENTE);
+        pedidoNovo.setEnderecoEntrega(pedido.getEnderecoEntrega());
+        pedidoNovo.setLatitudeEntrega(pedido.getLatitudeEntrega());
+        pedidoNovo.setLongitudeEntrega(pedido.getLongitudeEntrega());
+        pedidoNovo.setTaxaEntrega(taxaEntrega);
+        pedidoNovo.setValorTotal(valorTotal);
+
+        for (ItemPedido item : itensPedido) {
+            item.setPedido(pedidoNovo);
+        }
+        pedidoNovo.setItens(itensPedido);
+        return pedidoNovo;
+    }
+
+    public Produto produtoDoItem(ItemPedido item, ReferenciasPedido referencias) {
+        if (item.getProduto() == null || item.getProduto().getId() == null) {
+            throw new RuntimeException("Produto não informado");
+        }
+        Produto produto = referencias.produtos().get(item.getProduto().getId());
+        if (produto == null) {
+            throw new EntityNotFoundException("Produto não encontrado: " + item.getProduto().getId());
+        }
+        return produto;
+    }
+}
@@ -0,0 +1,45 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.util.GeradorSnowflake;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Número do pedido atribuído pelo servidor: "PED" + identificador Snowflake em base32 de tamanho fixo.
+// Gerado em memória (sem sequência no banco) e crescente no tempo, então a ordem do texto é a ordem de
+// criação e o próprio número serve de cursor da listagem. Cada instância da API precisa de um nó distinto
+// (delivery.pedidos.numero.no) para os números não colidirem; o último nó fica reservado aos números
+// reescritos pela migração V12 a partir da data dos pedidos antigos.
+@Component
+public class NumeradorPedidos {
+
+    public static final String PREFIXO = "PED";
+    public static final int NO_NUMEROS_MIGRADOS = GeradorSnowflake.NO_MAXIMO;
+
+    private final GeradorSnowflake gerador;
+
+    public NumeradorPedidos(@Value("${delivery.pedidos.numero.no:0}") int no) {
+        if (no == NO_NUMEROS_MIGRADOS) {
+            throw new IllegalArgumentException("Nó " + no + " reservado aos números de pedido migrados");
+        }
+        this.gerador = new GeradorSnowflake(no);
+    }
+
+    public String proximo() {
+        return PREFIXO + GeradorSnowflake.codificar(gerador.proximo());
+    }
+
+    // Número no formato gerado (prefixo + identificador em base32 válido)
+    public static boolean gerado(String numeroPedido) {
+        if (numeroPedido == null || !numeroPedido.startsWith(PREFIXO)
+                || numeroPedido.length() != PREFIXO.length() + GeradorSnowflake.TAMANHO_TEXTO) {
+            return false;
+        }
+        try {
+            GeradorSnowflake.decodificar(numeroPedido.substring(PREFIXO.length()));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.enums.FormatoExportacao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Exportação de pedidos por período escrita direto no stream de saída.
+// Lê o período com um cursor JDBC forward-only e fetch size fixo, uma linha por vez,
+// para que o uso de heap não dependa do tamanho do intervalo exportado.
+@Service
+public class PedidoExportacaoService {
+
+    private static final String SQL_PEDIDOS_PERIODO = """
+            SELECT p.id, p.numero_pedido, p.data_pedido, p.status, p.cliente_id, p.restaurante_id,
+                   p.subtotal, p.taxa_entrega, p.valor_desconto, p.valor_total, p.forma_pagamento,
+                   p.endereco_entrega
+            FROM pedidos p
+            WHERE p.data_pedido BETWEEN ? AND ?
+            ORDER BY p.data_pedido, p.id
+            """;
+
+    private static final String CABECALHO_CSV =
+            "id,numero_pedido,data_pedido,status,cliente_id,restaurante_id,subtotal,taxa_entrega," +
+            "valor_desconto,valor_total,forma_pagamento,endereco_entrega";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public PedidoExportacaoService(JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${delivery.exportacao.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // Transação somente leitura: alguns drivers (ex.: PostgreSQL) só respeitam o fetch size com autocommit desligado
+    @Transactional(readOnly = true)
+    public void exportar(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato, OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        PreparedStatementCreator consulta = conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(
+                    SQL_PEDIDOS_PERIODO, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(inicio));
+            ps.setTimestamp(2, Timestamp.valueOf(fim));
+            return ps;
+        };
+
+        try {
+            if (formato == FormatoExportacao.CSV) {
+                escritor.write(CABECALHO_CSV);
+                escritor.write('\n');
+                jdbcTemplate.query(consulta, (RowCallbackHandler) rs -> escreverLinhaCsv(rs, escritor));
+            } else {
+                JsonGenerator gerador = objectMapper.getFactory().createGenerator(escritor);
+                gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gerador.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                gerador.setRootValueSeparator(null);
+                jdbcTemplate.query(consulta, (RowCallbackHandler) rs -> escreverLinhaNdjson(rs, gerador));
+                gerador.close();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        escritor.flush();
+    }
+
+    private void escreverLinhaNdjson(ResultSet rs, JsonGenerator gerador) throws SQLException {
+        try {
+            gerador.writeStartObject();
+            gerador.writeNumberField("id", rs.getLong("id"));
+            gerador.writeStringField("numeroPedido", rs.getString("numero_pedido"));
+            gerador.writeStringField("dataPedido", rs.getTimestamp("data_pedido").toLocalDateTime().toString());
+            gerador.writeStringField("status", rs.getString("status"));
+            gerador.writeNumberField("clienteId", rs.getLong("cliente_id"));
+            gerador.writeNumberField("restauranteId", rs.getLong("restaurante_id"));
+            escreverDecimal(gerador, "subtotal", rs.getBigDecimal("subtotal"));
+            escreverDecimal(gerador, "taxaEntrega", rs.getBigDecimal("taxa_entrega"));
+            escreverDecimal(gerador, "valorDesconto", rs.getBigDecimal("valor_desconto"));
+            escreverDecimal(gerador, "valorTotal", rs.getBigDecimal("valor_total"));
+            gerador.writeStringField("formaPagamento", rs.getString("forma_pagamento"));
+            gerador.writeStringField("enderecoEntrega", rs.getString("endereco_entrega"));
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escreverDecimal(JsonGenerator gerador, String campo, BigDecimal valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNullField(campo);
+        } else {
+            gerador.writeNumberField(campo, valor);
+        }
+    }
+
+    private void escreverLinhaCsv(ResultSet rs, Writer escritor) throws SQLException {
+        try {
+            escritor.write(rs.getLong("id") + ",");
+            escritor.write(campoCsv(rs.getString("numero_pedido")) + ",");
+            escritor.write(rs.getTimestamp("data_pedido").toLocalDateTime() + ",");
+            escritor.write(campoCsv(rs.getString("status")) + ",");
+            escritor.write(rs.getLong("cliente_id") + ",");
+            escritor.write(rs.getLong("restaurante_id") + ",");
+            escritor.write(campoCsv(rs.getBigDecimal("subtotal")) + ",");
+            escritor.write(campoCsv(rs.getBigDecimal("taxa_entrega")) + ",");
+            escritor.write(campoCsv(rs.getBigDecimal("valor_desconto")) + ",");
+            escritor.write(campoCsv(rs.getBigDecimal("valor_total")) + ",");
+            escritor.write(campoCsv(rs.getString("forma_pagamento")) + ",");
+            escritor.write(campoCsv(rs.getString("endereco_entrega")));
+            escritor.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor instanceof BigDecimal decimal ? decimal.toPlainString() : valor.toString();
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
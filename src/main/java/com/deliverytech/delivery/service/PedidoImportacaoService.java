@@ -0,0 +1,203 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.ResultadoImportacao;
+import com.deliverytech.delivery.dto.ResultadoLinhaImportacao;
+import com.deliverytech.delivery.entity.Pedido;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Importação de pedidos de marketplaces a partir de um stream NDJSON (um pedido por linha).
+// O arquivo é processado em blocos: cada bloco carrega as referências (clientes, restaurantes, produtos)
+// em três consultas, valida as linhas em paralelo com o MontadorPedido, separa o estoque de cada linha
+// válida e grava os pedidos aceitos em uma transação própria. Um erro em uma linha (inclusive falta de
+// estoque) rejeita só aquela linha.
+@Service
+public class PedidoImportacaoService {
+
+    // Linha do arquivo já convertida (pedido nulo quando o JSON é inválido)
+    private record LinhaImportacao(int numero, Pedido pedido, String erro) {}
+
+    // Resultado da validação de uma linha: pedido montado ou erro
+    private record LinhaValidada(LinhaImportacao linha, Pedido pedidoNovo, String erro) {}
+
+    private final PedidoService pedidoService;
+    private final MontadorPedido montadorPedido;
+    private final EstoqueService estoqueService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService validadores;
+    private final int tamanhoBloco;
+    private final int paralelismo;
+
+    public PedidoImportacaoService(PedidoService pedidoService,
+                                   MontadorPedido montadorPedido,
+                                   EstoqueService estoqueService,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${delivery.importacao.tamanho-bloco:200}") int tamanhoBloco,
+                                   @Value("${delivery.importacao.paralelismo:4}") int paralelismo) {
+        this.pedidoService = pedidoService;
+        this.montadorPedido = montadorPedido;
+        this.estoqueService = estoqueService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoBloco = tamanhoBloco;
+        this.paralelismo = paralelismo;
+        this.validadores = Executors.newFixedThreadPool(paralelismo,
+                Thread.ofPlatform().daemon().name("importacao-pedidos-", 1).factory());
+    }
+
+    public ResultadoImportacao importar(InputStream entrada) throws IOException {
+        List<ResultadoLinhaImportacao> resultados = new ArrayList<>();
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        List<LinhaImportacao> bloco = new ArrayList<>(tamanhoBloco);
+        int numero = 0;
+        String texto;
+        while ((texto = leitor.readLine()) != null) {
+            numero++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            bloco.add(converter(numero, texto));
+            if (bloco.size() == tamanhoBloco) {
+                resultados.addAll(processarBloco(bloco));
+                bloco = new ArrayList<>(tamanhoBloco);
+            }
+        }
+        if (!bloco.isEmpty()) {
+            resultados.addAll(processarBloco(bloco));
+        }
+        return ResultadoImportacao.de(resultados);
+    }
+
+    private LinhaImportacao converter(int numero, String texto) {
+        try {
+            return new LinhaImportacao(numero, objectMapper.readValue(texto, Pedido.class), null);
+        } catch (JsonProcessingException e) {
+            return new LinhaImportacao(numero, null, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    // Um bloco = uma transação. Se a gravação falhar, todas as linhas válidas do bloco são rejeitadas
+    private List<ResultadoLinhaImportacao> processarBloco(List<LinhaImportacao> bloco) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Pedido> pedidos = bloco.stream()
+                        .filter(linha -> linha.pedido() != null)
+                        .map(LinhaImportacao::pedido)
+                        .toList();
+                ReferenciasPedido referencias = pedidoService.carregarReferencias(pedidos);
+
+                List<LinhaValidada> validadas = separarEstoque(validarEmParalelo(bloco, referencias));
+                List<Pedido> pedidosNovos = validadas.stream()
+                        .filter(validada -> validada.pedidoNovo() != null)
+                        .map(LinhaValidada::pedidoNovo)
+                        .toList();
+                if (!pedidosNovos.isEmpty()) {
+                    pedidoService.persistirNovos(pedidosNovos);
+                }
+                return validadas.stream().map(this::resultado).toList();
+            });
+        } catch (RuntimeException e) {
+            String erro = "Falha ao gravar o bloco: " + e.getMessage();
+            return bloco.stream()
+                    .map(linha -> ResultadoLinhaImportacao.rejeitado(linha.numero(), numeroPedido(linha),
+                            linha.erro() != null ? linha.erro() : erro))
+                    .toList();
+        }
+    }
+
+    // Divide o bloco em fatias validadas por threads diferentes; só leitura das referências já carregadas
+    private List<LinhaValidada> validarEmParalelo(List<LinhaImportacao> bloco, ReferenciasPedido referencias) {
+        int tamanhoFatia = Math.max(1, (bloco.size() + paralelismo - 1) / paralelismo);
+        List<Future<List<LinhaValidada>>> fatias = new ArrayList<>();
+        for (int inicio = 0; inicio < bloco.size(); inicio += tamanhoFatia) {
+            List<LinhaImportacao> fatia = bloco.subList(inicio, Math.min(inicio + tamanhoFatia, bloco.size()));
+            Callable<List<LinhaValidada>> tarefa = () -> fatia.stream()
+                    .map(linha -> validar(linha, referencias))
+                    .toList();
+            fatias.add(validadores.submit(tarefa));
+        }
+
+        List<LinhaValidada> validadas = new ArrayList<>(bloco.size());
+        try {
+            for (Future<List<LinhaValidada>> fatia : fatias) {
+                validadas.addAll(fatia.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falha na validação do bloco", e.getCause());
+        }
+        return validadas;
+    }
+
+    // Separa o estoque linha a linha, na ordem do arquivo: uma linha sem estoque vira rejeição dela só,
+    // em vez de uma exceção na gravação que desfaria o bloco inteiro
+    private List<LinhaValidada> separarEstoque(List<LinhaValidada> validadas) {
+        List<LinhaValidada> resultado = new ArrayList<>(validadas.size());
+        for (LinhaValidada validada : validadas) {
+            if (validada.pedidoNovo() == null) {
+                resultado.add(validada);
+                continue;
+            }
+            resultado.add(estoqueService.separarAntecipadamente(validada.pedidoNovo())
+                    .map(recusa -> new LinhaValidada(validada.linha(), null, recusa))
+                    .orElse(validada));
+        }
+        return resultado;
+    }
+
+    private LinhaValidada validar(LinhaImportacao linha, ReferenciasPedido referencias) {
+        if (linha.pedido() == null) {
+            return new LinhaValidada(linha, null, linha.erro());
+        }
+        try {
+            return new LinhaValidada(linha, montadorPedido.montar(linha.pedido(), referencias), null);
+        } catch (RuntimeException e) {
+            return new LinhaValidada(linha, null, e.getMessage());
+        }
+    }
+
+    // IDs de sequência: os pedidos gravados já têm ID logo após o persist
+    private ResultadoLinhaImportacao resultado(LinhaValidada validada) {
+        int numero = validada.linha().numero();
+        if (validada.pedidoNovo() == null) {
+            return ResultadoLinhaImportacao.rejeitado(numero, numeroPedido(validada.linha()), validada.erro());
+        }
+        return ResultadoLinhaImportacao.importado(numero, validada.pedidoNovo().getNumeroPedido(),
+                validada.pedidoNovo().getId());
+    }
+
+    private String numeroPedido(LinhaImportacao linha) {
+        return linha.pedido() != null ? linha.pedido().getNumeroPedido() : null;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        validadores.shutdownNow();
+    }
+}
@@ -1,145 +1,224 @@
 package com.deliverytech.delivery.service;
 
+import com.deliverytech.delivery.dto.PaginaCursor;
+import com.deliverytech.delivery.dto.PedidoResponse;
+
 import com.deliverytech.delivery.entity.Pedido;
 import com.deliverytech.delivery.entity.Produto;
 import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.HistoricoStatusPedido;
 import com.deliverytech.delivery.entity.ItemPedido;
 import com.deliverytech.delivery.entity.Restaurante;
 
 import com.deliverytech.delivery.enums.StatusPedido;
 
-import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.exception.ConflitoStatusPedidoException;
+
+import com.deliverytech.delivery.repository.HistoricoStatusPedidoRepository;
 import com.deliverytech.delivery.repository.PedidoRepository;
-import com.deliverytech.delivery.repository.ProdutoRepository;
-import com.deliverytech.delivery.repository.RestauranteRepository;
 
+import com.deliverytech.delivery.util.CursorUtil;
+
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 
+import io.micrometer.core.annotation.Timed;
+
+import org.hibernate.Session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
+@Timed(value = "delivery.service", histogram = true)
 public class PedidoService {
     
     private final PedidoRepository pedidoRepository;
-    private final ClienteRepository clienteRepository;
-    private final RestauranteRepository restauranteRepository;
-    private final ProdutoRepository produtoRepository;
+    private final HistoricoStatusPedidoRepository historicoStatusRepository;
+    private final MaquinaEstadosPedido maquinaEstados;
+    private final MontadorPedido montadorPedido;
+    private final QuadroPedidosAtivos quadroPedidosAtivos;
+    private final RelatorioVendasService relatorioVendas;
+    private final EstoqueService estoqueService;
+    private final IdempotenciaPedidos idempotencia;
+    private final EntityManager entityManager;
+    private final int tamanhoMaximoLote;
 
     public PedidoService(PedidoRepository pedidoRepository,
-                         ClienteRepository clienteRepository,
-                         RestauranteRepository restauranteRepository,
-                         ProdutoRepository produtoRepository) {
+                         HistoricoStatusPedidoRepository historicoStatusRepository,
+                         MaquinaEstadosPedido maquinaEstados,
+                         MontadorPedido montadorPedido,
+                         QuadroPedidosAtivos quadroPedidosAtivos,
+                         RelatorioVendasService relatorioVendas,
+                         EstoqueService estoqueService,
+                         IdempotenciaPedidos idempotencia,
+                         EntityManager entityManager,
+                         @Value("${delivery.pedidos.lote.tamanho-maximo:500}") int tamanhoMaximoLote) {
         this.pedidoRepository = pedidoRepository;
-        this.clienteRepository = clienteRepository;
-        this.restauranteRepository = restauranteRepository;
-        this.produtoRepository = produtoRepository;
+        this.historicoStatusRepository = historicoStatusRepository;
+        this.maquinaEstados = maquinaEstados;
+        this.montadorPedido = montadorPedido;
+        this.quadroPedidosAtivos = quadroPedidosAtivos;
+        this.relatorioVendas = relatorioVendas;
+        this.estoqueService = estoqueService;
+        this.idempotencia = idempotencia;
+        this.entityManager = entityManager;
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+    }
+    
+    @Transactional(readOnly = true)
+    public PaginaCursor<Pedido> listarPagina(String cursor, Integer limite, boolean incluirTotal) {
+        int tamanho = CursorUtil.tamanhoPagina(limite);
+        List<Pedido> pedidos;
+        if (cursor == null || cursor.isBlank()) {
+            pedidos = pedidoRepository.findPrimeiraPagina(Limit.of(tamanho + 1));
+        } else {
+            CursorUtil.CursorPedido posicao = CursorUtil.decodificarPedido(cursor);
+            pedidos = pedidoRepository.findPaginaApos(posicao.dataPedido(), posicao.id(), Limit.of(tamanho + 1));
+        }
+
+        // Itens carregados em uma segunda consulta: fetch de coleção junto com LIMIT seria paginado em memória
+        if (!pedidos.isEmpty()) {
+            pedidoRepository.carregarItens(pedidos.stream().map(Pedido::getId).toList());
+        }
+
+        Long total = incluirTotal ? pedidoRepository.count() : null;
+        return PaginaCursor.de(pedidos, tamanho, p -> CursorUtil.codificar(p.getDataPedido(), p.getId()), total);
     }
     
-    public List<Pedido> listarTodos() {
-        return pedidoRepository.findAll();
+    // Listagem por número do pedido: o cursor é o próprio número do último pedido da página
+    @Transactional(readOnly = true)
+    public PaginaCursor<Pedido> listarPorNumero(String antesDe, Integer limite) {
+        int tamanho = CursorUtil.tamanhoPagina(limite);
+        List<Pedido> pedidos = antesDe == null || antesDe.isBlank()
+                ? pedidoRepository.findByOrderByNumeroPedidoDesc(Limit.of(tamanho + 1))
+                : pedidoRepository.findByNumeroPedidoLessThanOrderByNumeroPedidoDesc(antesDe, Limit.of(tamanho + 1));
+        if (!pedidos.isEmpty()) {
+            pedidoRepository.carregarItens(pedidos.stream().map(Pedido::getId).toList());
+        }
+        return PaginaCursor.de(pedidos, tamanho, Pedido::getNumeroPedido, null);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Pedido> buscarPorId(Long id) {
-        return pedidoRepository.findById(id);
+        return pedidoRepository.findComDetalhesById(id);
     }
     
     public Pedido salvar(Pedido pedido) {
-        // 1. Validar cliente existe e está ativo
-        Cliente cliente = clienteRepository.findById(pedido.getCliente().getId())
-                .orElseThrow(() -> new RuntimeException("Cliente inativo não pode fazer pedidos"));
+        return salvar(pedido, null);
+    }
+    
+    // chaveIdempotencia (opcional) é gravada junto com o pedido; repetida, desfaz a criação
+    public Pedido salvar(Pedido pedido, String chaveIdempotencia) {
+        // 1. Buscar cliente, restaurante e todos os produtos do pedido (uma consulta para cada)
+        ReferenciasPedido referencias = carregarReferencias(List.of(pedido));
 
-        if (cliente.getAtivo() == null || !cliente.getAtivo().booleanValue()) {
-            throw new RuntimeException("Cliente inativo não pode fazer pedidos");
-        }
+        // 2. Validar e montar o pedido com itens e total
+        Pedido pedidoNovo = montadorPedido.montar(pedido, referencias);
 
-        // 2. Validar restaurante existe e está ativo
-        Restaurante restaurante = restauranteRepository.findById(pedido.getRestaurante().getId())
-                .orElseThrow(() -> new RuntimeException("Restaurante não encontrado"));
+        // 3. Salvar pedido (itens em cascata; INSERTs enviados em lote no flush)
+        Pedido pedidoSalvo = pedidoRepository.save(pedidoNovo);
 
-        if (restaurante.getAtivo() == null || !restaurante.getAtivo().booleanValue()) {
-            throw new RuntimeException("Restaurante não está disponível");
-        }
+        // 4. Registrar a criação na máquina de estados (ganchos e evento com status anterior nulo).
+        // O gancho do EstoqueService reserva o estoque dos itens; sem estoque, o pedido inteiro é desfeito
+        maquinaEstados.registrar(pedidoSalvo, null, pedidoSalvo.getDataPedido());
 
-        // 3. Validar todos os produtos existem e estão disponíveis
-        List<ItemPedido> itensPedido = new ArrayList<>();
-        BigDecimal subtotal = BigDecimal.ZERO;
+        // 5. Associar a chave de idempotência ao pedido
+        if (chaveIdempotencia != null) {
+            idempotencia.registrar(chaveIdempotencia, pedidoSalvo);
+        }
 
-        for (ItemPedido item : pedido.getItens()) {
-            Produto produto = produtoRepository.findById(item.getProduto().getId())
-                    .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado: " + item.getProduto().getId()));
+        // 6. Retornar pedido criado
+        return pedidoSalvo;
+    }
+    
+    // Criação de vários pedidos em uma única transação (tudo ou nada): clientes, restaurantes e produtos
+    // do lote inteiro são carregados em três consultas, e os INSERTs saem em lotes JDBC
+    public List<Pedido> salvarLote(List<Pedido> pedidos) {
+        if (pedidos.size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("Lote excede o tamanho máximo de " + tamanhoMaximoLote + " pedidos");
+        }
 
-            if (produto.getAtivo() != null || !produto.getAtivo().booleanValue()) {
-                throw new RuntimeException("Produto indisponível: " + produto.getNome());
+        ReferenciasPedido referencias = carregarReferencias(pedidos);
+        List<Pedido> pedidosNovos = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            pedidosNovos.add(montadorPedido.montar(pedido, referencias));
+        }
+        return persistirNovos(pedidosNovos);
+    }
+    
+    // Grava pedidos já validados pelo MontadorPedido e registra a criação de cada um
+    public List<Pedido> persistirNovos(List<Pedido> pedidosNovos) {
+        List<Pedido> pedidosSalvos = pedidoRepository.saveAll(pedidosNovos);
+        for (Pedido pedidoSalvo : pedidosSalvos) {
+            maquinaEstados.registrar(pedidoSalvo, null, pedidoSalvo.getDataPedido());
+        }
+        return pedidosSalvos;
+    }
+    
+    // Carrega, em uma consulta por tipo, os clientes, restaurantes e produtos referenciados pelos pedidos.
+    // IDs inexistentes simplesmente ficam fora dos mapas; a validação fica com o MontadorPedido
+    public ReferenciasPedido carregarReferencias(List<Pedido> pedidos) {
+        Set<Long> clienteIds = new HashSet<>();
+        Set<Long> restauranteIds = new HashSet<>();
+        List<ItemPedido> itens = new ArrayList<>();
+        for (Pedido pedido : pedidos) {
+            if (pedido.getCliente() != null && pedido.getCliente().getId() != null) {
+                clienteIds.add(pedido.getCliente().getId());
             }
-
-            if (!produto.getRestaurante().getId().equals(pedido.getRestaurante().getId())) {
-                throw new RuntimeException("Produto não pertence ao restaurante selecionado");
+            if (pedido.getRestaurante() != null && pedido.getRestaurante().getId() != null) {
+                restauranteIds.add(pedido.getRestaurante().getId());
+            }
+            if (pedido.getItens() != null) {
+                itens.addAll(pedido.getItens());
             }
-
-            // Criar item do pedido
-            ItemPedido itemNovo = new ItemPedido();
-            itemNovo.setProduto(produto);
-            itemNovo.setQuantidade(item.getQuantidade());
-            itemNovo.setPrecoUnitario(produto.getPreco());
-            itemNovo.setSubtotal(produto.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())));
-
-            itensPedido.add(itemNovo);
-            subtotal = subtotal.add(itemNovo.getSubtotal());
         }
 
-        // 4. Calcular total do pedido
-        BigDecimal taxaEntrega = restaurante.getTaxaEntrega();
-        BigDecimal valorTotal = subtotal.add(taxaEntrega);
-
-        // 5. Salvar pedido
-        Pedido pedidoNovo = new Pedido();
-        pedidoNovo.setNumeroPedido(pedido.getNumeroPedido());
-        pedidoNovo.setObservacoes(pedido.getObservacoes());
-        pedidoNovo.setCliente(cliente);
-        pedidoNovo.setRestaurante(restaurante);
-        pedidoNovo.setDataPedido(LocalDateTime.now());
-        pedidoNovo.setStatus(StatusPedido.PENDENTE);
-        pedidoNovo.setEnderecoEntrega(pedido.getEnderecoEntrega());
-        pedidoNovo.setTaxaEntrega(taxaEntrega);
-        pedidoNovo.setValorTotal(valorTotal);
-
-        Pedido pedidoSalvo = pedidoRepository.save(pedidoNovo);
-
-        // 6. Salvar itens do pedido
-        for (ItemPedido item : itensPedido) {
-            item.setPedido(pedidoSalvo);
+        Map<Long, Cliente> clientes = new HashMap<>();
+        for (Cliente cliente : carregarPorIds(Cliente.class, clienteIds)) {
+            clientes.put(cliente.getId(), cliente);
         }
-        pedidoSalvo.setItens(itensPedido);
-
-        // 7. Atualizar estoque (se aplicável) - Simulação
-        // Em um cenário real, aqui seria decrementado o estoque
-
-        // 8. Retornar pedido criado
-        return pedidoSalvo;
+        Map<Long, Restaurante> restaurantes = new HashMap<>();
+        for (Restaurante restaurante : carregarPorIds(Restaurante.class, restauranteIds)) {
+            restaurantes.put(restaurante.getId(), restaurante);
+        }
+        return new ReferenciasPedido(clientes, restaurantes, carregarProdutos(itens));
     }
     
+    // Carrega com detalhes: o pedido devolvido é convertido em PedidoResponse fora da transação
     public Pedido atualizar(Long id, Pedido pedidoAtualizado) {
-        return pedidoRepository.findById(id)
+        return pedidoRepository.findComDetalhesById(id)
                 .map(pedido -> {
-                    if (pedidoAtualizado.getStatus() != null) {
+                    StatusPedido statusAnterior = pedido.getStatus();
+                    BigDecimal valorAnterior = pedido.getValorTotal();
+                    // O corpo desserializado vem com PENDENTE por padrão: o mesmo status não é uma transição
+                    if (pedidoAtualizado.getStatus() != null && pedidoAtualizado.getStatus() != statusAnterior) {
                         // Validar transição de status
-                        if (!validaTransicao(pedido.getStatus(), pedidoAtualizado.getStatus())) {
-                            throw new RuntimeException("Transição de status inválida de " + pedido.getStatus() + " para " + pedidoAtualizado.getStatus());
-                        }
-                        pedido.setStatus(pedidoAtualizado.getStatus());
+                        maquinaEstados.validar(id, statusAnterior, pedidoAtualizado.getStatus());
+                        pedido.alterarStatus(pedidoAtualizado.getStatus());
                     }
                     if (pedidoAtualizado.getEnderecoEntrega() != null) {
                         pedido.setEnderecoEntrega(pedidoAtualizado.getEnderecoEntrega());
                     }
+                    if (pedidoAtualizado.getLatitudeEntrega() != null && pedidoAtualizado.getLongitudeEntrega() != null) {
+                        pedido.setLatitudeEntrega(pedidoAtualizado.getLatitudeEntrega());
+                        pedido.setLongitudeEntrega(pedidoAtualizado.getLongitudeEntrega());
+                    }
                     if (pedidoAtualizado.getObservacoes() != null) {
                         pedido.setObservacoes(pedidoAtualizado.getObservacoes());
                     }
@@ -157,16 +236,30 @@ public class PedidoService {
                     }
                     
                     pedido.calcularValorTotal();
-                    return pedidoRepository.save(pedido);
+                    Pedido pedidoSalvo = pedidoRepository.save(pedido);
+                    // O valor é corrigido no balde do status anterior, antes de a transição mover o pedido
+                    relatorioVendas.ajustarValor(pedidoSalvo, statusAnterior, pedidoSalvo.getValorTotal().subtract(valorAnterior));
+                    if (pedidoSalvo.getStatus() != statusAnterior) {
+                        maquinaEstados.registrar(pedidoSalvo, statusAnterior, pedidoSalvo.getDataAtualizacao());
+                    } else {
+                        quadroPedidosAtivos.atualizar(pedidoSalvo);
+                    }
+                    return pedidoSalvo;
                 })
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
     }
     
     public void deletar(Long id) {
-        pedidoRepository.deleteById(id);
+        pedidoRepository.findById(id).ifPresent(pedido -> {
+            relatorioVendas.removerPedido(pedido);
+            estoqueService.liberarReservas(id);
+            pedidoRepository.delete(pedido);
+            quadroPedidosAtivos.remover(id);
+        });
     }
     
     // Métodos específicos do negócio
+    @Transactional(readOnly = true)
     public List<Pedido> buscarPorCliente(Cliente cliente) {
         List<Pedido> pedidosEncontrados = pedidoRepository.findByClienteOrderByDataPedidoDesc(cliente);
         if (pedidosEncontrados == null || pedidosEncontrados.isEmpty()) {
@@ -175,6 +268,7 @@ public class PedidoService {
         return pedidosEncontrados;
     }
     
+    @Transactional(readOnly = true)
     public List<Pedido> buscarPorRestaurante(Restaurante restaurante) {
         List<Pedido> pedidosEncontrados = pedidoRepository.findByRestauranteOrderByDataPedidoDesc(restaurante);
         if (pedidosEncontrados == null || pedidosEncontrados.isEmpty()) {
@@ -183,6 +277,7 @@ public class PedidoService {
         return pedidosEncontrados;
     }
     
+    @Transactional(readOnly = true)
     public List<Pedido> buscarPorStatus(StatusPedido status) {
         List<Pedido> pedidosEncontrados = pedidoRepository.findByStatusOrderByDataPedidoDesc(status);
         if (pedidosEncontrados == null || pedidosEncontrados.isEmpty()) {
@@ -191,6 +286,7 @@ public class PedidoService {
         return pedidosEncontrados;
     }
     
+    @Transactional(readOnly = true)
     public List<Pedido> buscarPorClienteId(Long clienteId) {
         List<Pedido> pedidosEncontrados = pedidoRepository.findByClienteIdOrderByDataPedidoDesc(clienteId);
         if (pedidosEncontrados == null || pedidosEncontrados.isEmpty()) {
@@ -199,143 +295,148 @@ public class PedidoService {
         return pedidosEncontrados;
     }
     
+    @Transactional(readOnly = true)
     public List<Pedido> buscarPorRestauranteId(Long restauranteId) {
         return pedidoRepository.findByRestauranteIdOrderByDataPedidoDesc(restauranteId);
     }
     
-    public List<Pedido> buscarPedidosAtivos() {
-        List<StatusPedido> statusAtivos = Arrays.asList(
-            StatusPedido.PENDENTE,
-            StatusPedido.CONFIRMADO,
-            StatusPedido.PREPARANDO,
-            StatusPedido.PRONTO,
-            StatusPedido.SAIU_PARA_ENTREGA
-        );
-        return pedidoRepository.findByStatusInOrderByDataPedidoAsc(statusAtivos);
+    // Pedidos ativos servidos pelo quadro em memória, sem consulta ao banco
+    @Transactional(readOnly = true)
+    public List<PedidoResponse> buscarPedidosAtivos() {
+        return quadroPedidosAtivos.listarAtivos();
     }
     
+    @Transactional(readOnly = true)
+    public List<PedidoResponse> buscarPedidosAtivosPorRestaurante(Long restauranteId) {
+        return quadroPedidosAtivos.listarAtivos(restauranteId);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Pedido> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
         return pedidoRepository.findByDataPedidoBetween(inicio, fim);
     }
     
+    // As ações de status são validadas pela máquina de estados e gravadas com um UPDATE condicional
+    // ao status lido (compare-and-set), sem carregar e regravar a entidade
     public Pedido confirmarPedido(Long id) {
-        return pedidoRepository.findById(id)
-                .map(pedido -> {
-                    // Verificar se o pedido já está confirmado
-                    if (pedido.getStatus() == StatusPedido.CONFIRMADO) {
-                        throw new RuntimeException("Pedido já está confirmado: " + id);
-                    }
-
-                    // Validar transição de status
-                    if (!validaTransicao(pedido.getStatus(), StatusPedido.CONFIRMADO)) {
-                        throw new RuntimeException("Transição de status inválida de " + pedido.getStatus() + " para " + StatusPedido.CONFIRMADO);
-                    }
-                    // Atualizar status do pedido para CONFIRMADO
-                    pedido.setStatus(StatusPedido.CONFIRMADO);
-                    return pedidoRepository.save(pedido);
-                })
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+        return transicionar(id, StatusPedido.CONFIRMADO, null);
     }
     
     public Pedido cancelarPedido(Long id, String motivo) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
-
-        // Verificar se o pedido já está cancelado
-        if (pedido.getStatus() == StatusPedido.CANCELADO) {
-            throw new RuntimeException("Pedido já está cancelado: " + id);
-        }
-
-        // Verificar se o pedido pode ser cancelado
-        if (!podeSerCancelado(pedido.getStatus())) {
-            throw new RuntimeException("Pedido não pode ser cancelado no status: " + pedido.getStatus());
-        }
-
-        // Validar transição de status
-        if (!validaTransicao(pedido.getStatus(), StatusPedido.CANCELADO)) {
-            throw new RuntimeException("Transição de status inválida de " + pedido.getStatus() + " para " + StatusPedido.CANCELADO);
-        }
-
-        // Atualizar status do pedido para CANCELADO
-        pedido.setStatus(StatusPedido.CANCELADO);
-        pedido.setMotivoCancelamento(motivo);
-        pedido.setDataCancelamento(LocalDateTime.now());
-        pedido.setTempoEstimadoEntrega(null); // Limpar tempo estimado de entrega
-
-        // Salva e retornar pedido atualizado
-        return pedidoRepository.save(pedido);
+        return transicionar(id, StatusPedido.CANCELADO, motivo);
+    }
+    
+    // Cancelamento por reserva de estoque vencida: só parte de PENDENTE. Um pedido confirmado (ou cancelado)
+    // depois da consulta das reservas não casa com o UPDATE condicional e gera ConflitoStatusPedidoException
+    public Pedido expirarPedidoPendente(Long id, String motivo) {
+        return aplicarTransicao(id, StatusPedido.PENDENTE, StatusPedido.CANCELADO, motivo);
     }
     
     public Pedido entregarPedido(Long id) {
-        return pedidoRepository.findById(id)
-                .map(pedido -> {
-                    pedido.entregar();
-                    return pedidoRepository.save(pedido);
-                })
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+        return transicionar(id, StatusPedido.ENTREGUE, null);
     }
     
     public Pedido atualizarStatus(Long id, StatusPedido novoStatus) {
-        return pedidoRepository.findById(id)
-                .map(pedido -> {
-                    // Verificar se o pedido já está no status desejado
-                    if (pedido.getStatus() == novoStatus) {
-                        throw new RuntimeException("Pedido já está no status: " + novoStatus);
-                    }
-
-                    // Validar transição de status
-                    if (!validaTransicao(pedido.getStatus(), novoStatus)) {
-                        throw new RuntimeException("Transição de status inválida de " + pedido.getStatus() + " para " + novoStatus);
-                    }
-
-                    // Verificar se o novo status é CANCELADO
-                    if (novoStatus == StatusPedido.CANCELADO && !podeSerCancelado(pedido.getStatus())) {
-                        throw new RuntimeException("Pedido não pode ser cancelado no status: " + pedido.getStatus());
-                    }
-
-                    // Atualizar status do pedido
-                    pedido.setStatus(novoStatus);
-                    return pedidoRepository.save(pedido);
-                })
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+        return transicionar(id, novoStatus, null);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<HistoricoStatusPedido> buscarHistorico(Long id) {
+        if (!pedidoRepository.existsById(id)) {
+            throw new RuntimeException("Pedido não encontrado com id: " + id);
+        }
+        return historicoStatusRepository.findByPedidoIdOrderByDataTransicaoAscIdAsc(id);
     }
     
+    @Transactional(readOnly = true)
     public Long contarPedidosPorCliente(Cliente cliente) {
         return pedidoRepository.countByCliente(cliente);
     }
     
+    // Pedidos não cancelados do restaurante, inclusive os já entregues
+    @Transactional(readOnly = true)
     public Long contarPedidosAtivosPorRestaurante(Restaurante restaurante) {
         return pedidoRepository.countByRestauranteAndStatusNot(restaurante);
     }
 
+    // Pedidos em andamento (status não terminal) do restaurante, pelo quadro em memória, sem consultar o banco
+    @Transactional(readOnly = true)
+    public Long contarPedidosEmAndamentoPorRestaurante(Long restauranteId) {
+        return quadroPedidosAtivos.contarAtivos(restauranteId);
+    }
+
     public BigDecimal calcularValorTotalPedido(List<ItemPedido> itens) {
         // Calcular o valor total do pedido somando os preços dos itens
+        ReferenciasPedido referencias = new ReferenciasPedido(Map.of(), Map.of(), carregarProdutos(itens));
         BigDecimal valorTotal = BigDecimal.ZERO;
         for (ItemPedido item : itens) {
-            Produto produto = produtoRepository.findById(item.getProduto().getId())
-                    .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + item.getProduto().getId()));
+            Produto produto = montadorPedido.produtoDoItem(item, referencias);
             valorTotal = valorTotal.add(produto.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())));
         }
         return valorTotal;
     }
 
-    private boolean validaTransicao(StatusPedido statusAtual, StatusPedido novoStatus) {
-        // Implementar lógica de transições válidas
-        switch (statusAtual) {
-            case PENDENTE:
-                return novoStatus == StatusPedido.CONFIRMADO || novoStatus == StatusPedido.CANCELADO;
-            case CONFIRMADO:
-                return novoStatus == StatusPedido.PREPARANDO || novoStatus == StatusPedido.CANCELADO;
-            case PREPARANDO:
-                return novoStatus == StatusPedido.SAIU_PARA_ENTREGA;
-            case SAIU_PARA_ENTREGA:
-                return novoStatus == StatusPedido.ENTREGUE;
-            default:
-                return false;
+    // Carrega todos os produtos dos itens (do cache de segundo nível ou em uma única consulta) e indexa por ID
+    private Map<Long, Produto> carregarProdutos(List<ItemPedido> itens) {
+        Set<Long> ids = new HashSet<>();
+        for (ItemPedido item : itens) {
+            if (item.getProduto() != null && item.getProduto().getId() != null) {
+                ids.add(item.getProduto().getId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<Long, Produto> produtos = new HashMap<>();
+        for (Produto produto : carregarPorIds(Produto.class, ids)) {
+            produtos.put(produto.getId(), produto);
+        }
+        return produtos;
+    }
+
+    // Carga por IDs que consulta o contexto de persistência e o cache de segundo nível antes do banco:
+    // só os IDs ausentes dos dois vão para um SELECT ... IN. IDs inexistentes são descartados
+    private <T> List<T> carregarPorIds(Class<T> tipo, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(tipo)
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
     }
 
-    private boolean podeSerCancelado(StatusPedido status) {
-        return status == StatusPedido.PENDENTE || status == StatusPedido.CONFIRMADO;
+    private Pedido transicionar(Long id, StatusPedido novoStatus, String motivo) {
+        StatusPedido statusAnterior = pedidoRepository.findStatusById(id)
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+        return aplicarTransicao(id, statusAnterior, novoStatus, motivo);
+    }
+
+    // UPDATE condicional ao status de origem: se o pedido já não está em statusAnterior, nada é alterado
+    private Pedido aplicarTransicao(Long id, StatusPedido statusAnterior, StatusPedido novoStatus, String motivo) {
+        maquinaEstados.validar(id, statusAnterior, novoStatus);
+
+        LocalDateTime agora = LocalDateTime.now();
+        int alterados = switch (novoStatus) {
+            case CANCELADO -> pedidoRepository.transicionarParaCancelado(id, statusAnterior, motivo, agora);
+            case ENTREGUE -> pedidoRepository.transicionarParaEntregue(id, statusAnterior, agora);
+            default -> pedidoRepository.transicionarStatus(id, statusAnterior, novoStatus, agora);
+        };
+
+        if (alterados == 0) {
+            // Outro processo alterou o status entre a leitura e o UPDATE
+            StatusPedido statusAtual = pedidoRepository.findStatusById(id)
+                    .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+            throw new ConflitoStatusPedidoException(id, statusAtual, novoStatus);
+        }
+
+        Pedido pedido = pedidoRepository.findComDetalhesById(id)
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+        maquinaEstados.registrar(pedido, statusAnterior, agora);
+        return pedido;
     }
-}
\ No newline at end of file
+}
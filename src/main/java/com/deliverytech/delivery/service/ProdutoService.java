@@ -2,40 +2,67 @@ package com.deliverytech.delivery.service;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.deliverytech.delivery.dto.EstatisticasCache;
+import com.deliverytech.delivery.dto.EstoqueProduto;
+import com.deliverytech.delivery.dto.PaginaCursor;
 import com.deliverytech.delivery.entity.Produto;
 import com.deliverytech.delivery.repository.ProdutoRepository;
+import com.deliverytech.delivery.util.CursorUtil;
 
 @Service
 @Transactional
+@Timed(value = "delivery.service", histogram = true)
 public class ProdutoService {
     
     private final ProdutoRepository produtoRepository;
+    private final CardapioCache cardapioCache;
+    private final IndiceBusca indiceBusca;
+    private final EstoqueService estoqueService;
     
-    public ProdutoService(ProdutoRepository produtoRepository) {
+    public ProdutoService(ProdutoRepository produtoRepository, CardapioCache cardapioCache, IndiceBusca indiceBusca,
+                          EstoqueService estoqueService) {
         this.produtoRepository = produtoRepository;
+        this.cardapioCache = cardapioCache;
+        this.indiceBusca = indiceBusca;
+        this.estoqueService = estoqueService;
     }
     
-    public List<Produto> listarTodos() {
-        return produtoRepository.findAll();
+    @Transactional(readOnly = true)
+    public PaginaCursor<Produto> listarPagina(String cursor, Integer limite, boolean incluirTotal) {
+        int tamanho = CursorUtil.tamanhoPagina(limite);
+        List<Produto> produtos = produtoRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorUtil.decodificarId(cursor), Limit.of(tamanho + 1));
+        Long total = incluirTotal ? produtoRepository.count() : null;
+        return PaginaCursor.de(produtos, tamanho, p -> CursorUtil.codificar(p.getId()), total);
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> listarAtivos() {
         return produtoRepository.findByAtivoTrue();
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> listarDisponiveis() {
         return produtoRepository.findByAtivoTrueAndDisponivelTrue();
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> listarPromocoes() {
         return produtoRepository.findByPromocaoTrueAndDisponivelTrue();
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> buscarPorCategoria(String categoria) {
         List<Produto> produtosEncontrados = produtoRepository.findByCategoriaAndDisponivelTrue(categoria);
         if (produtosEncontrados.isEmpty()) {
@@ -44,8 +71,16 @@ public class ProdutoService {
         return produtosEncontrados;
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> buscarPorNome(String nome) {
-        List<Produto> produtosEncontrados = produtoRepository.findByNomeContainingIgnoreCaseAndDisponivelTrue(nome);
+        // Buscar no índice textual (sem acentos, por prefixo e tolerante a erros), já ordenado por relevância
+        List<Long> ids = indiceBusca.buscarProdutos(nome);
+        Map<Long, Produto> porId = produtoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+        List<Produto> produtosEncontrados = ids.stream()
+                .map(porId::get)
+                .filter(produto -> produto != null && Boolean.TRUE.equals(produto.getDisponivel()))
+                .toList();
         
         if (produtosEncontrados.isEmpty()) {
                 throw new RuntimeException("Produto não encontrado: " + nome);
@@ -54,8 +89,10 @@ public class ProdutoService {
         return produtosEncontrados;
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> buscarPorRestaurante(Long restauranteId) {
-        List<Produto> produtosEncontrados = produtoRepository.findByRestauranteIdAndDisponivelTrue(restauranteId);
+        List<Produto> produtosEncontrados = cardapioCache.buscar(restauranteId, false,
+                produtoRepository::findByRestauranteIdAndDisponivelTrue);
 
         if (produtosEncontrados.isEmpty()) {
             throw new RuntimeException("Nenhum produto encontrado para o restaurante ID: " + restauranteId);
@@ -64,42 +101,52 @@ public class ProdutoService {
         return produtosEncontrados;
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> buscarPorFaixaPreco(BigDecimal precoMin, BigDecimal precoMax) {
-        List<Produto> produtosEncontrados = produtoRepository.findByPrecoBetweenAndDisponivelTrue(precoMin, precoMax);
+        List<Produto> produtosEncontrados = produtoRepository.findByPrecoEfetivoBetween(precoMin, precoMax);
         if (produtosEncontrados.isEmpty()) {
             throw new RuntimeException("Nenhum produto encontrado na faixa de preço: " + precoMin + " - " + precoMax);
         }
         return produtosEncontrados;
     }
 
+    @Transactional(readOnly = true)
     public List<Produto> buscarPorPrecoMenorOuIgual(BigDecimal valor) {
-        List<Produto> produtos = produtoRepository.findByPrecoLessThanEqualAndDisponivelTrue(valor);
+        List<Produto> produtos = produtoRepository.findByPrecoEfetivoLessThanEqual(valor);
         if (produtos.isEmpty()) {
             throw new RuntimeException("Nenhum produto encontrado com preço menor ou igual a: " + valor);
         }
         return produtos;
     }
     
+    @Transactional(readOnly = true)
     public List<Produto> buscarDisponiveisPorRestaurante(Long restauranteId) {
-        return produtoRepository.findProdutosDisponiveisPorRestaurante(restauranteId);
+        return cardapioCache.buscar(restauranteId, true,
+                produtoRepository::findProdutosDisponiveisPorRestaurante);
     }
     
+    @Transactional(readOnly = true)
     public List<String> listarCategorias() {
         return produtoRepository.findAllCategorias();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Produto> buscarPorId(Long id) {
         return produtoRepository.findById(id);
     }
     
     public Produto salvar(Produto produto) {
-
-        return produtoRepository.save(produto);
+        Produto produtoSalvo = produtoRepository.save(produto);
+        cardapioCache.invalidar(restauranteId(produtoSalvo));
+        indiceBusca.atualizar(produtoSalvo);
+        estoqueService.registrarProduto(produtoSalvo);
+        return produtoSalvo;
     }
 
     public Produto atualizar(Long id, Produto produtoAtualizado) {
         return produtoRepository.findById(id)
             .map(produto -> {
+                cardapioCache.invalidar(restauranteId(produto));
                 produto.setNome(produtoAtualizado.getNome());
                 produto.setDescricao(produtoAtualizado.getDescricao());
                 produto.setPreco(produtoAtualizado.getPreco());
@@ -110,13 +157,20 @@ public class ProdutoService {
                 produto.setDisponivel(produtoAtualizado.getDisponivel());
                 produto.setTempoPreparo(produtoAtualizado.getTempoPreparo());
                 produto.setRestaurante(produtoAtualizado.getRestaurante());
+                cardapioCache.invalidar(restauranteId(produto));
+                indiceBusca.atualizar(produto);
                 return produtoRepository.save(produto);
             })
             .orElseThrow(() -> new RuntimeException("Produto não encontrado com id: " + id));
     }
     
     public void deletar(Long id) {
-        produtoRepository.deleteById(id);
+        produtoRepository.findById(id).ifPresent(produto -> {
+            cardapioCache.invalidar(restauranteId(produto));
+            indiceBusca.removerProduto(produto.getId());
+            estoqueService.removerProduto(produto.getId());
+            produtoRepository.delete(produto);
+        });
     }
     
     public Produto ativarDesativarProduto(Long id) {
@@ -125,6 +179,8 @@ public class ProdutoService {
             throw new RuntimeException("Produto não encontrado com id: " + id);
         }
         produtoEncontrado.get().setAtivo(!produtoEncontrado.get().getAtivo());
+        cardapioCache.invalidar(restauranteId(produtoEncontrado.get()));
+        indiceBusca.atualizar(produtoEncontrado.get());
         return produtoRepository.save(produtoEncontrado.get());
     }
     
@@ -134,6 +190,8 @@ public class ProdutoService {
             throw new RuntimeException("Produto não encontrado com id: " + id);
         }
         produtoEncontrado.get().setDisponivel(!produtoEncontrado.get().getDisponivel());
+        cardapioCache.invalidar(restauranteId(produtoEncontrado.get()));
+        indiceBusca.atualizar(produtoEncontrado.get());
         return produtoRepository.save(produtoEncontrado.get());
     }
     
@@ -144,6 +202,7 @@ public class ProdutoService {
                     produto.setPromocao(true);
                     produto.setPrecoPromocional(precoPromocional);
                     produtoRepository.save(produto);
+                    cardapioCache.invalidar(restauranteId(produto));
                 },
                 () -> { throw new RuntimeException("Produto não encontrado com id: " + id); }
             );
@@ -156,8 +215,27 @@ public class ProdutoService {
                     produto.setPromocao(false);
                     produto.setPrecoPromocional(null);
                     produtoRepository.save(produto);
+                    cardapioCache.invalidar(restauranteId(produto));
                 },
                 () -> { throw new RuntimeException("Produto não encontrado com id: " + id); }
             );
     }
+
+    @Transactional(readOnly = true)
+    public EstoqueProduto consultarEstoque(Long id) {
+        return estoqueService.consultar(id);
+    }
+
+    public EstoqueProduto adicionarEstoque(Long id, int quantidade) {
+        return estoqueService.adicionarEstoque(id, quantidade);
+    }
+
+    @Transactional(readOnly = true)
+    public EstatisticasCache estatisticasCardapio() {
+        return cardapioCache.estatisticas();
+    }
+
+    private Long restauranteId(Produto produto) {
+        return produto.getRestaurante() != null ? produto.getRestaurante().getId() : null;
+    }
 }
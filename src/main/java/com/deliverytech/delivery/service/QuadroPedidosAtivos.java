@@ -0,0 +1,161 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.PedidoResponse;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.util.AposCommit;
+import com.deliverytech.delivery.util.LeituraPrimario;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.hibernate.Hibernate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Quadro em memória dos pedidos não terminais, por restaurante e ordenados por dataPedido.
+// Carregado do banco antes de o servidor aceitar requisições e mantido pelas transições da máquina
+// de estados (após o commit), de modo que as consultas de pedidos ativos não acessam o banco.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class QuadroPedidosAtivos implements GanchoTransicaoPedido, SmartInitializingSingleton, MeterBinder {
+
+    private record Posicao(LocalDateTime dataPedido, Long id) {}
+
+    private static final Comparator<Posicao> ORDEM = Comparator
+            .comparing(Posicao::dataPedido)
+            .thenComparing(Posicao::id);
+
+    private final Map<Long, ConcurrentSkipListMap<Posicao, PedidoResponse>> porRestaurante = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Posicao, PedidoResponse> todos = new ConcurrentSkipListMap<>(ORDEM);
+    private final Map<Long, PedidoResponse> porId = new ConcurrentHashMap<>();
+
+    // Versão com que cada pedido saiu do quadro, para ignorar uma atualização anterior aplicada fora de ordem
+    private final Cache<Long, Long> removidos = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public QuadroPedidosAtivos(PedidoRepository pedidoRepository, PlatformTransactionManager transactionManager) {
+        this.pedidoRepository = pedidoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Carga inicial, antes de o servidor web iniciar
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<StatusPedido> statusAtivos = Arrays.stream(StatusPedido.values())
+                .filter(status -> !status.isTerminal())
+                .toList();
+        List<PedidoResponse> ativos = LeituraPrimario.executar(() -> transactionTemplate.execute(status ->
+                PedidoResponse.de(pedidoRepository.findByStatusInOrderByDataPedidoAsc(statusAtivos))));
+        ativos.forEach(this::aplicar);
+    }
+
+    @Override
+    public void aoTransicionar(TransicaoPedido transicao) {
+        atualizar(transicao.pedido());
+    }
+
+    // Reflete o pedido no quadro depois do commit. As associações são carregadas ainda dentro da transação;
+    // o retrato é montado após o commit, quando os IDs dos itens novos já foram gerados
+    public void atualizar(Pedido pedido) {
+        Hibernate.initialize(pedido.getCliente());
+        Hibernate.initialize(pedido.getRestaurante());
+        Hibernate.initialize(pedido.getItens());
+        for (ItemPedido item : pedido.getItens()) {
+            Hibernate.initialize(item.getProduto());
+        }
+        AposCommit.executar(() -> aplicar(PedidoResponse.de(pedido)));
+    }
+
+    public void remover(Long pedidoId) {
+        AposCommit.executar(() -> porId.computeIfPresent(pedidoId, (id, atual) -> {
+            retirar(atual);
+            removidos.put(id, Long.MAX_VALUE);
+            return null;
+        }));
+    }
+
+    private void aplicar(PedidoResponse novo) {
+        porId.compute(novo.id(), (id, atual) -> {
+            if (atual != null && versao(atual) > versao(novo)) {
+                return atual;
+            }
+            Long versaoRemovida = removidos.getIfPresent(id);
+            if (versaoRemovida != null && versaoRemovida >= versao(novo)) {
+                return atual;
+            }
+            if (atual != null) {
+                retirar(atual);
+            }
+            if (novo.status().isTerminal()) {
+                removidos.put(id, versao(novo));
+                return null;
+            }
+            Posicao posicao = new Posicao(novo.dataPedido(), novo.id());
+            porRestaurante.computeIfAbsent(novo.restauranteId(), r -> new ConcurrentSkipListMap<>(ORDEM))
+                    .put(posicao, novo);
+            todos.put(posicao, novo);
+            return novo;
+        });
+    }
+
+    private void retirar(PedidoResponse pedido) {
+        Posicao posicao = new Posicao(pedido.dataPedido(), pedido.id());
+        todos.remove(posicao);
+        ConcurrentSkipListMap<Posicao, PedidoResponse> doRestaurante = porRestaurante.get(pedido.restauranteId());
+        if (doRestaurante != null) {
+            doRestaurante.remove(posicao);
+        }
+    }
+
+    private static long versao(PedidoResponse pedido) {
+        return pedido.versao() != null ? pedido.versao() : 0L;
+    }
+
+    public List<PedidoResponse> listarAtivos() {
+        return new ArrayList<>(todos.values());
+    }
+
+    public List<PedidoResponse> listarAtivos(Long restauranteId) {
+        ConcurrentSkipListMap<Posicao, PedidoResponse> doRestaurante = porRestaurante.get(restauranteId);
+        return doRestaurante != null ? new ArrayList<>(doRestaurante.values()) : new ArrayList<>();
+    }
+
+    public long contarAtivos(Long restauranteId) {
+        ConcurrentSkipListMap<Posicao, PedidoResponse> doRestaurante = porRestaurante.get(restauranteId);
+        return doRestaurante != null ? doRestaurante.size() : 0L;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.pedidos.ativos", porId, Map::size)
+                .description("Pedidos não terminais no quadro em memória")
+                .register(registry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+
+import java.util.Map;
+
+// Clientes, restaurantes e produtos referenciados por um conjunto de pedidos, indexados por ID
+// e carregados de uma vez (PedidoService.carregarReferencias) para validar os pedidos sem novas consultas
+public record ReferenciasPedido(
+    Map<Long, Cliente> clientes,
+    Map<Long, Restaurante> restaurantes,
+    Map<Long, Produto> produtos
+) {}
@@ -0,0 +1,221 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.ResumoVendas;
+import com.deliverytech.delivery.entity.ChaveVendaConsolidada;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.repository.VendaConsolidadaRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Relatórios de vendas servidos pela tabela vendas_consolidadas (baldes por restaurante, hora e status).
+// Os baldes são atualizados na mesma transação de cada criação/transição de pedido (gancho da máquina de estados),
+// então uma consulta de período soma poucas linhas em vez de varrer a tabela de pedidos.
+@Service
+@Transactional
+@Timed(value = "delivery.service", histogram = true)
+public class RelatorioVendasService implements GanchoTransicaoPedido {
+
+    private record Variacao(long quantidade, BigDecimal valor) {
+
+        Variacao somar(Variacao outra) {
+            return new Variacao(quantidade + outra.quantidade, valor.add(outra.valor));
+        }
+    }
+
+    private static final Comparator<ChaveVendaConsolidada> ORDEM_CHAVES = Comparator
+            .comparing(ChaveVendaConsolidada::getRestauranteId)
+            .thenComparing(ChaveVendaConsolidada::getHora)
+            .thenComparing(ChaveVendaConsolidada::getStatus);
+
+    private final VendaConsolidadaRepository vendaConsolidadaRepository;
+    private final PedidoRepository pedidoRepository;
+
+    // Transações de pedido gravam suas variações e fazem commit sob a trava de leitura; a reconstrução
+    // segura a de escrita do início ao fim da sua transação. Assim cada pedido entra na reconstrução
+    // (já commitado antes dela) ou na variação ao vivo (gravada depois dela), nunca nos dois.
+    // Vale dentro desta instância, como os demais contadores em memória
+    private final ReentrantReadWriteLock travaReconstrucao = new ReentrantReadWriteLock();
+
+    public RelatorioVendasService(VendaConsolidadaRepository vendaConsolidadaRepository,
+                                  PedidoRepository pedidoRepository) {
+        this.vendaConsolidadaRepository = vendaConsolidadaRepository;
+        this.pedidoRepository = pedidoRepository;
+    }
+
+    // Move o pedido do balde do status anterior para o do novo status
+    @Override
+    public void aoTransicionar(TransicaoPedido transicao) {
+        Pedido pedido = transicao.pedido();
+        if (!transicao.isCriacao()) {
+            acumular(pedido, transicao.statusAnterior(), -1, pedido.getValorTotal().negate());
+        }
+        acumular(pedido, transicao.statusNovo(), 1, pedido.getValorTotal());
+    }
+
+    // Ajuste de valor de um pedido alterado sem mudança de status (ex.: desconto ou taxa via PUT)
+    public void ajustarValor(Pedido pedido, StatusPedido status, BigDecimal diferenca) {
+        if (diferenca.signum() != 0) {
+            acumular(pedido, status, 0, diferenca);
+        }
+    }
+
+    public void removerPedido(Pedido pedido) {
+        acumular(pedido, pedido.getStatus(), -1, pedido.getValorTotal().negate());
+    }
+
+    // As variações são somadas por balde durante a transação e gravadas uma única vez antes do commit,
+    // em ordem de chave: um lote de pedidos gera um MERGE por balde, e transações concorrentes
+    // travam os baldes sempre na mesma ordem
+    private void acumular(Pedido pedido, StatusPedido status, long quantidade, BigDecimal valor) {
+        ChaveVendaConsolidada chave = new ChaveVendaConsolidada(
+                pedido.getRestaurante().getId(),
+                pedido.getDataPedido().truncatedTo(ChronoUnit.HOURS),
+                status);
+        Variacao variacao = new Variacao(quantidade, valor);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            travaReconstrucao.readLock().lock();
+            try {
+                gravar(chave, variacao);
+            } finally {
+                travaReconstrucao.readLock().unlock();
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<ChaveVendaConsolidada, Variacao> pendentes =
+                (Map<ChaveVendaConsolidada, Variacao>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Map<ChaveVendaConsolidada, Variacao> novasPendentes = new TreeMap<>(ORDEM_CHAVES);
+            TransactionSynchronizationManager.bindResource(this, novasPendentes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean travada;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Espera uma reconstrução em andamento; só solta depois do commit do pedido
+                    travaReconstrucao.readLock().lock();
+                    travada = true;
+                    novasPendentes.forEach(RelatorioVendasService.this::gravar);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RelatorioVendasService.this);
+                    if (travada) {
+                        travaReconstrucao.readLock().unlock();
+                    }
+                }
+            });
+            pendentes = novasPendentes;
+        }
+        pendentes.merge(chave, variacao, Variacao::somar);
+    }
+
+    private void gravar(ChaveVendaConsolidada chave, Variacao variacao) {
+        if (variacao.quantidade() == 0 && variacao.valor().signum() == 0) {
+            return;
+        }
+        vendaConsolidadaRepository.acumular(
+                chave.getRestauranteId(),
+                chave.getHora(),
+                chave.getStatus().name(),
+                variacao.quantidade(),
+                variacao.valor());
+    }
+
+    // Vendas em [inicio, fim): horas cheias dos baldes consolidados e, nas bordas fora da hora cheia,
+    // a soma direta dos pedidos (pelo índice de data_pedido)
+    @Transactional(readOnly = true)
+    public ResumoVendas resumoVendas(LocalDateTime inicio, LocalDateTime fim, Long restauranteId) {
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("Início do período deve ser anterior ao fim");
+        }
+
+        LocalDateTime inicioHoras = inicio.truncatedTo(ChronoUnit.HOURS);
+        if (inicioHoras.isBefore(inicio)) {
+            inicioHoras = inicioHoras.plusHours(1);
+        }
+        LocalDateTime fimHoras = fim.truncatedTo(ChronoUnit.HOURS);
+
+        if (!inicioHoras.isBefore(fimHoras)) {
+            // Período menor que uma hora cheia
+            return pedidoRepository.resumirVendas(inicio, fim, restauranteId);
+        }
+
+        ResumoVendas resumo = vendaConsolidadaRepository.somarVendas(inicioHoras, fimHoras, restauranteId);
+        if (inicio.isBefore(inicioHoras)) {
+            resumo = resumo.somar(pedidoRepository.resumirVendas(inicio, inicioHoras, restauranteId));
+        }
+        if (fimHoras.isBefore(fim)) {
+            resumo = resumo.somar(pedidoRepository.resumirVendas(fimHoras, fim, restauranteId));
+        }
+        return resumo;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<StatusPedido, Long> contarPedidosPorStatus() {
+        Map<StatusPedido, Long> contagem = new EnumMap<>(StatusPedido.class);
+        List<Object[]> linhas = vendaConsolidadaRepository.contarPedidosPorStatus();
+        for (Object[] linha : linhas) {
+            long quantidade = ((Number) linha[1]).longValue();
+            if (quantidade > 0) {
+                contagem.put((StatusPedido) linha[0], quantidade);
+            }
+        }
+        return contagem;
+    }
+
+    // Recalcula os baldes a partir da tabela de pedidos (todas as horas, ou as horas de [inicio, fim)).
+    // Enquanto roda, os commits de pedidos esperam para gravar suas variações (ver travaReconstrucao)
+    public int reconstruir(LocalDateTime inicio, LocalDateTime fim) {
+        travaReconstrucao.writeLock().lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return reconstruirBaldes(inicio, fim);
+            } finally {
+                travaReconstrucao.writeLock().unlock();
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                travaReconstrucao.writeLock().unlock();
+            }
+        });
+        return reconstruirBaldes(inicio, fim);
+    }
+
+    private int reconstruirBaldes(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null) {
+            vendaConsolidadaRepository.deleteAllInBatch();
+            return vendaConsolidadaRepository.consolidarTudo();
+        }
+
+        LocalDateTime inicioHoras = inicio.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime fimHoras = fim.truncatedTo(ChronoUnit.HOURS);
+        if (fimHoras.isBefore(fim)) {
+            fimHoras = fimHoras.plusHours(1);
+        }
+        vendaConsolidadaRepository.apagarPeriodo(inicioHoras, fimHoras);
+        return vendaConsolidadaRepository.consolidarPeriodo(inicioHoras, fimHoras);
+    }
+}
@@ -1,54 +1,93 @@
 package com.deliverytech.delivery.service;
 
+import com.deliverytech.delivery.dto.PaginaCursor;
+import com.deliverytech.delivery.dto.RestauranteProximo;
 import com.deliverytech.delivery.entity.Restaurante;
 import com.deliverytech.delivery.repository.RestauranteRepository;
+import com.deliverytech.delivery.util.CursorUtil;
 
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "delivery.service", histogram = true)
 public class RestauranteService {
     
     private final RestauranteRepository restauranteRepository;
+    private final IndiceBusca indiceBusca;
+    private final MapaRestaurantes mapaRestaurantes;
     
-    public RestauranteService(RestauranteRepository restauranteRepository) {
+    public RestauranteService(RestauranteRepository restauranteRepository, IndiceBusca indiceBusca,
+                              MapaRestaurantes mapaRestaurantes) {
         this.restauranteRepository = restauranteRepository;
+        this.indiceBusca = indiceBusca;
+        this.mapaRestaurantes = mapaRestaurantes;
     }
     
-    public List<Restaurante> listarTodos() {
-        return restauranteRepository.findAll();
+    @Transactional(readOnly = true)
+    public PaginaCursor<Restaurante> listarPagina(String cursor, Integer limite, boolean incluirTotal) {
+        int tamanho = CursorUtil.tamanhoPagina(limite);
+        List<Restaurante> restaurantes = restauranteRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorUtil.decodificarId(cursor), Limit.of(tamanho + 1));
+        Long total = incluirTotal ? restauranteRepository.count() : null;
+        return PaginaCursor.de(restaurantes, tamanho, r -> CursorUtil.codificar(r.getId()), total);
     }
     
+    @Transactional(readOnly = true)
     public List<Restaurante> listarAtivos() {
         return restauranteRepository.findByAtivoTrue();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Restaurante> buscarPorId(Long id) {
         return restauranteRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Restaurante> buscarPorNome(String nome) {
         return restauranteRepository.findByNome(nome);
     }
     
+    @Transactional(readOnly = true)
     public List<Restaurante> buscarPorCategoria(String categoria) {
         return restauranteRepository.findByCategoria(categoria);
     }
     
+    @Transactional(readOnly = true)
+    public List<RestauranteProximo> buscarQueEntregamEm(double latitude, double longitude, Double raioKm,
+                                                        BigDecimal taxaMaxima, String categoria, Integer limite) {
+        return mapaRestaurantes.buscarQueEntregamEm(latitude, longitude, raioKm, taxaMaxima, categoria, limite);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Restaurante> buscarPorNome(String nome, boolean ignorarCase) {
-        if (ignorarCase) {
-            return restauranteRepository.findByNomeContainingIgnoreCaseAndAtivoTrue(nome);
-        }
-        return restauranteRepository.findByNomeContainingIgnoreCaseAndAtivoTrue(nome);
+        // Busca parcial pelo índice textual (nome e categoria), ordenada por relevância e sempre sem
+        // distinção de maiúsculas e acentos
+        List<Long> ids = indiceBusca.buscarRestaurantes(nome);
+        Map<Long, Restaurante> porId = restauranteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+        return ids.stream()
+                .map(porId::get)
+                .filter(restaurante -> restaurante != null && Boolean.TRUE.equals(restaurante.getAtivo()))
+                .toList();
     }
     
     public Restaurante salvar(Restaurante restaurante) {
-        return restauranteRepository.save(restaurante);
+        Restaurante restauranteSalvo = restauranteRepository.save(restaurante);
+        indiceBusca.atualizar(restauranteSalvo);
+        mapaRestaurantes.atualizar(restauranteSalvo);
+        return restauranteSalvo;
     }
     
     public Restaurante atualizar(Long id, Restaurante restauranteAtualizado) {
@@ -58,6 +97,13 @@ public class RestauranteService {
             restaurante.setNome(restauranteAtualizado.getNome());
             restaurante.setCategoria(restauranteAtualizado.getCategoria());
             restaurante.setAtivo(restauranteAtualizado.getAtivo());
+            restaurante.setLatitude(restauranteAtualizado.getLatitude());
+            restaurante.setLongitude(restauranteAtualizado.getLongitude());
+            if (restauranteAtualizado.getRaioEntregaKm() != null) {
+                restaurante.setRaioEntregaKm(restauranteAtualizado.getRaioEntregaKm());
+            }
+            indiceBusca.atualizar(restaurante);
+            mapaRestaurantes.atualizar(restaurante);
             return restauranteRepository.save(restaurante);
         }
         return null;
@@ -66,6 +112,8 @@ public class RestauranteService {
     public boolean deletar(Long id) {
         if (restauranteRepository.existsById(id)) {
             restauranteRepository.deleteById(id);
+            indiceBusca.removerRestaurante(id);
+            mapaRestaurantes.remover(id);
             return true;
         }
         return false;
@@ -77,16 +125,20 @@ public class RestauranteService {
             Restaurante r = restauranteExistente.get();
             r.setAtivo(!r.getAtivo());
             restauranteRepository.save(r);
+            indiceBusca.atualizar(r);
+            mapaRestaurantes.atualizar(r);
             return r;
         } else {
             throw new RuntimeException("Restaurante não encontrado");
         }
     }
     
+    @Transactional(readOnly = true)
     public boolean existePorNome(String nome) {
         return restauranteRepository.existsByNome(nome);
     }
 
+    @Transactional(readOnly = true)
     public List<Restaurante> buscarPorPreco(BigDecimal precoMinimo, BigDecimal precoMaximo) {
         // Buscar restaurantes por taxa de entrega dentro do intervalo
         List<Restaurante> restaurantes = restauranteRepository.findByTaxaEntregaBetween(precoMinimo, precoMaximo);
@@ -96,6 +148,7 @@ public class RestauranteService {
         return restaurantes;
     }
 
+    @Transactional(readOnly = true)
     public List<Restaurante> buscarPorTaxaEntrega(BigDecimal taxaEntrega) {
         // Buscar restaurantes por taxa de entrega
         List<Restaurante> restaurantes = restauranteRepository.findByTaxaEntregaLessThanEqual(taxaEntrega);
@@ -105,6 +158,7 @@ public class RestauranteService {
         return restaurantes;
     }
 
+    @Transactional(readOnly = true)
     public List<Restaurante> listarTop5PorNome() {
         // Buscar os 5 primeiros restaurantes por nome
         List<Restaurante> top5Restaurantes = restauranteRepository.findTop5ByOrderByNomeAsc();
@@ -0,0 +1,137 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.dto.Sugestao;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.enums.TipoSugestao;
+import com.deliverytech.delivery.util.AposCommit;
+import com.deliverytech.delivery.util.IndiceTextual;
+import com.deliverytech.delivery.util.TrieSugestoes;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sugestões de autocompletar (nomes de produtos e restaurantes e categorias) em uma trie compacta.
+// A popularidade de cada produto é 1 + unidades vendidas e a de cada restaurante é 1 + pedidos recebidos;
+// uma categoria soma a popularidade dos produtos e restaurantes que a usam. O catálogo é repassado pelo
+// IndiceBusca e as vendas chegam pela máquina de estados, sempre depois do commit.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SugestoesBusca implements GanchoTransicaoPedido, MeterBinder {
+
+    // Contribuição atual de um produto ou restaurante para a trie
+    private record Fonte(String nome, String categoria, long popularidade) {}
+
+    private final TrieSugestoes trie = new TrieSugestoes();
+    private final Map<Long, Fonte> produtos = new HashMap<>();
+    private final Map<Long, Fonte> restaurantes = new HashMap<>();
+
+    // Contadores de vendas, mantidos mesmo enquanto o produto ou restaurante está fora do catálogo
+    private final Map<Long, Long> vendasPorProduto = new HashMap<>();
+    private final Map<Long, Long> pedidosPorRestaurante = new HashMap<>();
+
+    private final int limitePadrao;
+    private final int limiteMaximo;
+
+    public SugestoesBusca(@Value("${delivery.busca.sugestoes.limite-padrao:10}") int limitePadrao,
+                          @Value("${delivery.busca.sugestoes.limite-maximo:50}") int limiteMaximo) {
+        this.limitePadrao = limitePadrao;
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    public List<Sugestao> sugerir(String prefixo, Integer limite) {
+        int tamanho = limite == null || limite <= 0 ? limitePadrao : Math.min(limite, limiteMaximo);
+        return trie.sugerir(IndiceTextual.normalizar(prefixo), tamanho);
+    }
+
+    // Carga inicial dos contadores, antes da indexação do catálogo
+    public synchronized void carregarPopularidade(Map<Long, Long> vendas, Map<Long, Long> pedidos) {
+        vendasPorProduto.putAll(vendas);
+        pedidosPorRestaurante.putAll(pedidos);
+    }
+
+    public synchronized void atualizarProduto(Long id, String nome, String categoria) {
+        trocar(produtos, id, TipoSugestao.PRODUTO,
+                new Fonte(nome, categoria, 1 + vendasPorProduto.getOrDefault(id, 0L)));
+    }
+
+    public synchronized void removerProduto(Long id) {
+        trocar(produtos, id, TipoSugestao.PRODUTO, null);
+    }
+
+    public synchronized void atualizarRestaurante(Long id, String nome, String categoria) {
+        trocar(restaurantes, id, TipoSugestao.RESTAURANTE,
+                new Fonte(nome, categoria, 1 + pedidosPorRestaurante.getOrDefault(id, 0L)));
+    }
+
+    public synchronized void removerRestaurante(Long id) {
+        trocar(restaurantes, id, TipoSugestao.RESTAURANTE, null);
+    }
+
+    // Cada pedido criado soma as unidades aos produtos e um pedido ao restaurante
+    @Override
+    public void aoTransicionar(TransicaoPedido transicao) {
+        if (!transicao.isCriacao()) {
+            return;
+        }
+        Map<Long, Long> unidades = new HashMap<>();
+        for (ItemPedido item : transicao.pedido().getItens()) {
+            unidades.merge(item.getProduto().getId(), item.getQuantidade().longValue(), Long::sum);
+        }
+        Long restauranteId = transicao.pedido().getRestaurante().getId();
+        AposCommit.executar(() -> registrarVenda(restauranteId, unidades));
+    }
+
+    private synchronized void registrarVenda(Long restauranteId, Map<Long, Long> unidades) {
+        unidades.forEach((produtoId, quantidade) -> {
+            vendasPorProduto.merge(produtoId, quantidade, Long::sum);
+            Fonte fonte = produtos.get(produtoId);
+            if (fonte != null) {
+                trocar(produtos, produtoId, TipoSugestao.PRODUTO,
+                        new Fonte(fonte.nome(), fonte.categoria(), fonte.popularidade() + quantidade));
+            }
+        });
+        pedidosPorRestaurante.merge(restauranteId, 1L, Long::sum);
+        Fonte fonte = restaurantes.get(restauranteId);
+        if (fonte != null) {
+            trocar(restaurantes, restauranteId, TipoSugestao.RESTAURANTE,
+                    new Fonte(fonte.nome(), fonte.categoria(), fonte.popularidade() + 1));
+        }
+    }
+
+    // Retira a contribuição anterior da fonte (se houver) e aplica a nova (nula = remoção)
+    private void trocar(Map<Long, Fonte> fontes, Long id, TipoSugestao tipo, Fonte nova) {
+        Fonte anterior = nova != null ? fontes.put(id, nova) : fontes.remove(id);
+        if (anterior != null) {
+            contribuir(tipo, anterior, -anterior.popularidade());
+        }
+        if (nova != null) {
+            contribuir(tipo, nova, nova.popularidade());
+        }
+    }
+
+    private void contribuir(TipoSugestao tipo, Fonte fonte, long delta) {
+        if (fonte.nome() != null) {
+            trie.ajustar(IndiceTextual.normalizar(fonte.nome()), fonte.nome(), tipo, delta);
+        }
+        if (fonte.categoria() != null) {
+            trie.ajustar(IndiceTextual.normalizar(fonte.categoria()), fonte.categoria(), TipoSugestao.CATEGORIA, delta);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("delivery.busca.sugestoes", trie, TrieSugestoes::totalSugestoes)
+                .description("Sugestões de autocompletar na trie em memória")
+                .register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.deliverytech.delivery.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Tarefas periódicas do estoque: grava no banco as baixas acumuladas e cancela os pedidos
+// que não foram confirmados dentro do prazo da reserva (o cancelamento libera o estoque)
+@Component
+public class TarefasEstoque {
+
+    private final EstoqueService estoqueService;
+    private final PedidoService pedidoService;
+    private final int tamanhoLoteExpiracao;
+
+    public TarefasEstoque(EstoqueService estoqueService,
+                          PedidoService pedidoService,
+                          @Value("${delivery.estoque.reserva.tamanho-lote-expiracao:100}") int tamanhoLoteExpiracao) {
+        this.estoqueService = estoqueService;
+        this.pedidoService = pedidoService;
+        this.tamanhoLoteExpiracao = tamanhoLoteExpiracao;
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.estoque.baixa.intervalo:5s}")
+    public void gravarBaixas() {
+        // Cada chamada grava um lote em sua própria transação; repete até não haver baixas pendentes
+        int gravadas;
+        do {
+            gravadas = estoqueService.gravarBaixas();
+        } while (gravadas > 0);
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.estoque.reserva.intervalo-expiracao:30s}")
+    public void expirarReservas() {
+        List<Long> pedidoIds = estoqueService.buscarPedidosComReservaVencida(tamanhoLoteExpiracao);
+        for (Long pedidoId : pedidoIds) {
+            try {
+                pedidoService.expirarPedidoPendente(pedidoId, "Reserva de estoque expirada");
+            } catch (RuntimeException e) {
+                // Já não está PENDENTE (confirmado ou cancelado desde a consulta): o pedido fica como está
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.deliverytech.delivery.service;
+
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import java.time.LocalDateTime;
+
+// Transição já gravada, entregue aos ganchos dentro da transação (statusAnterior nulo = pedido criado)
+public record TransicaoPedido(
+    Pedido pedido,
+    StatusPedido statusAnterior,
+    StatusPedido statusNovo,
+    LocalDateTime data
+) {
+
+    public boolean isCriacao() {
+        return statusAnterior == null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.deliverytech.delivery.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Codificação dos cursores opacos usados na paginação keyset
+public final class CursorUtil {
+
+    public static final int TAMANHO_PAGINA_PADRAO = 20;
+    public static final int TAMANHO_PAGINA_MAXIMO = 100;
+
+    private static final String SEPARADOR = "|";
+
+    private CursorUtil() {
+    }
+
+    // Cursor de pedidos: posição (dataPedido, id) do último registro da página
+    public record CursorPedido(LocalDateTime dataPedido, Long id) {}
+
+    public static int tamanhoPagina(Integer limite) {
+        if (limite == null || limite <= 0) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        return Math.min(limite, TAMANHO_PAGINA_MAXIMO);
+    }
+
+    public static String codificar(Long id) {
+        return codificarTexto(String.valueOf(id));
+    }
+
+    public static String codificar(LocalDateTime dataPedido, Long id) {
+        return codificarTexto(dataPedido + SEPARADOR + id);
+    }
+
+    // Retorna 0 quando não há cursor (primeira página), já que os IDs são sempre positivos
+    public static Long decodificarId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(decodificarTexto(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    public static CursorPedido decodificarPedido(String cursor) {
+        try {
+            String texto = decodificarTexto(cursor);
+            int separador = texto.lastIndexOf(SEPARADOR);
+            return new CursorPedido(
+                LocalDateTime.parse(texto.substring(0, separador)),
+                Long.valueOf(texto.substring(separador + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static String codificarTexto(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificarTexto(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
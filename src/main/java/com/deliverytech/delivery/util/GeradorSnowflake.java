@@ -0,0 +1,111 @@
+package com.deliverytech.delivery.util;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Identificadores de 64 bits ordenados pelo tempo (estilo Snowflake), gerados sem acesso ao banco:
+// 41 bits de milissegundos desde EPOCA | 10 bits do nó | 12 bits de sequência no milissegundo.
+// Sem trava: o último (milissegundo, sequência) emitido fica em um AtomicLong avançado por compare-and-set.
+// Se a sequência de um milissegundo esgotar ou o relógio voltar, o gerador segue em um milissegundo lógico
+// à frente em vez de esperar, então os valores de um mesmo nó são sempre crescentes.
+public final class GeradorSnowflake {
+
+    public static final Instant EPOCA = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static final int BITS_NO = 10;
+    private static final int BITS_SEQUENCIA = 12;
+    private static final int BITS_INSTANTE = 41;
+
+    public static final int NO_MAXIMO = (1 << BITS_NO) - 1;
+
+    // Alfabeto base32 de Crockford (sem I, L, O e U): texto de tamanho fixo na mesma ordem do número
+    private static final char[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    public static final int TAMANHO_TEXTO = 13;
+
+    private final long no;
+    private final LongSupplier relogio;
+    private final long epocaMillis = EPOCA.toEpochMilli();
+
+    // (milissegundos desde EPOCA << BITS_SEQUENCIA) | sequência do último identificador emitido
+    private final AtomicLong ultimo = new AtomicLong();
+
+    public GeradorSnowflake(int no) {
+        this(no, System::currentTimeMillis);
+    }
+
+    public GeradorSnowflake(int no, LongSupplier relogio) {
+        if (no < 0 || no > NO_MAXIMO) {
+            throw new IllegalArgumentException("Nó do gerador deve estar entre 0 e " + NO_MAXIMO + ": " + no);
+        }
+        this.no = no;
+        this.relogio = relogio;
+    }
+
+    public long proximo() {
+        while (true) {
+            long anterior = ultimo.get();
+            long agora = (relogio.getAsLong() - epocaMillis) << BITS_SEQUENCIA;
+            // anterior + 1 estoura a sequência para o milissegundo seguinte quando ela se esgota
+            long atual = Math.max(anterior + 1, agora);
+            if (ultimo.compareAndSet(anterior, atual)) {
+                long millis = atual >>> BITS_SEQUENCIA;
+                if (millis >= 1L << BITS_INSTANTE) {
+                    throw new IllegalStateException("Instante fora do intervalo do gerador de identificadores");
+                }
+                return (millis << (BITS_NO + BITS_SEQUENCIA)) | (no << BITS_SEQUENCIA) | (atual & mascara(BITS_SEQUENCIA));
+            }
+        }
+    }
+
+    public static Instant instante(long identificador) {
+        return EPOCA.plusMillis(identificador >>> (BITS_NO + BITS_SEQUENCIA));
+    }
+
+    public static int no(long identificador) {
+        return (int) ((identificador >>> BITS_SEQUENCIA) & mascara(BITS_NO));
+    }
+
+    public static String codificar(long identificador) {
+        char[] texto = new char[TAMANHO_TEXTO];
+        for (int i = TAMANHO_TEXTO - 1; i >= 0; i--) {
+            texto[i] = ALFABETO[(int) (identificador & 31)];
+            identificador >>>= 5;
+        }
+        return new String(texto);
+    }
+
+    // Aceita minúsculas e as trocas comuns de Crockford (I e L por 1, O por 0)
+    public static long decodificar(String texto) {
+        if (texto == null || texto.length() != TAMANHO_TEXTO) {
+            throw new IllegalArgumentException("Identificador inválido: " + texto);
+        }
+        long identificador = 0;
+        for (int i = 0; i < TAMANHO_TEXTO; i++) {
+            int valor = valor(Character.toUpperCase(texto.charAt(i)));
+            if (valor < 0 || (i == 0 && valor > 7)) {
+                throw new IllegalArgumentException("Identificador inválido: " + texto);
+            }
+            identificador = (identificador << 5) | valor;
+        }
+        return identificador;
+    }
+
+    private static int valor(char c) {
+        switch (c) {
+            case 'I', 'L' -> c = '1';
+            case 'O' -> c = '0';
+            default -> { }
+        }
+        for (int i = 0; i < ALFABETO.length; i++) {
+            if (ALFABETO[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long mascara(int bits) {
+        return (1L << bits) - 1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.deliverytech.delivery.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Índice espacial em grade uniforme: cada ponto fica na célula de lado fixo (em graus) que o contém.
+// Uma busca por raio visita só as células que cobrem o retângulo envolvente do círculo, então o custo
+// depende da densidade local, não do total de pontos. Escritas são serializadas; leituras não bloqueiam.
+public final class GradeGeografica {
+
+    public static final double RAIO_TERRA_KM = 6371.0088;
+    private static final double KM_POR_GRAU_LATITUDE = 111.32;
+
+    private record Celula(int linha, int coluna) {}
+
+    private record Ponto(double latitude, double longitude, Celula celula) {}
+
+    public record Proximo(Long id, double distanciaKm) {}
+
+    private final double grausPorCelula;
+    private final Map<Celula, Set<Long>> celulas = new ConcurrentHashMap<>();
+    private final Map<Long, Ponto> pontos = new ConcurrentHashMap<>();
+
+    public GradeGeografica(double ladoCelulaKm) {
+        this.grausPorCelula = ladoCelulaKm / KM_POR_GRAU_LATITUDE;
+    }
+
+    public synchronized void posicionar(Long id, double latitude, double longitude) {
+        remover(id);
+        Celula celula = celula(latitude, longitude);
+        pontos.put(id, new Ponto(latitude, longitude, celula));
+        celulas.computeIfAbsent(celula, c -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    public synchronized void remover(Long id) {
+        Ponto anterior = pontos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        celulas.computeIfPresent(anterior.celula(), (c, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    public synchronized void limpar() {
+        celulas.clear();
+        pontos.clear();
+    }
+
+    public int totalPontos() {
+        return pontos.size();
+    }
+
+    // IDs a até raioKm do ponto, com a distância calculada (ordem não definida)
+    public List<Proximo> buscar(double latitude, double longitude, double raioKm) {
+        double deltaLatitude = raioKm / KM_POR_GRAU_LATITUDE;
+        // Perto dos polos a faixa de longitude cobre o globo inteiro
+        double cosseno = Math.cos(Math.toRadians(latitude));
+        double deltaLongitude = cosseno > 1e-6 ? raioKm / (KM_POR_GRAU_LATITUDE * cosseno) : 180.0;
+        deltaLongitude = Math.min(deltaLongitude, 180.0);
+
+        Celula minima = celula(latitude - deltaLatitude, longitude - deltaLongitude);
+        Celula maxima = celula(latitude + deltaLatitude, longitude + deltaLongitude);
+
+        List<Proximo> resultado = new ArrayList<>();
+        for (int linha = minima.linha(); linha <= maxima.linha(); linha++) {
+            for (int coluna = minima.coluna(); coluna <= maxima.coluna(); coluna++) {
+                Set<Long> ids = celulas.get(new Celula(linha, coluna));
+                if (ids == null) {
+                    continue;
+                }
+                for (Long id : ids) {
+                    Ponto ponto = pontos.get(id);
+                    if (ponto == null) {
+                        continue;
+                    }
+                    double distancia = distanciaKm(latitude, longitude, ponto.latitude(), ponto.longitude());
+                    if (distancia <= raioKm) {
+                        resultado.add(new Proximo(id, distancia));
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    // Distância de grande círculo (haversine)
+    public static double distanciaKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private Celula celula(double latitude, double longitude) {
+        return new Celula((int) Math.floor(latitude / grausPorCelula), (int) Math.floor(longitude / grausPorCelula));
+    }
+}
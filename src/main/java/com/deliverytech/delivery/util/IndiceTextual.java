@@ -0,0 +1,243 @@
+package com.deliverytech.delivery.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Índice invertido em memória (termo -> documentos com o peso do campo em que o termo aparece).
+// Os termos ficam ordenados, então a busca por prefixo é um intervalo do mapa; a tolerância a erros de
+// digitação (distância 1) usa as variantes por deleção de cada termo, sem varrer o vocabulário.
+// Escritas são serializadas; leituras não bloqueiam e podem observar uma atualização em andamento.
+public final class IndiceTextual {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+
+    // Palavras sem valor de busca em nomes e descrições em português
+    private static final Set<String> IRRELEVANTES = Set.of(
+            "a", "o", "as", "os", "de", "da", "do", "das", "dos", "e", "em", "com", "sem", "para", "ao", "na", "no");
+
+    // Pesos por tipo de correspondência, multiplicados pelo peso do campo
+    private static final float EXATO = 1.0f;
+    private static final float PREFIXO = 0.6f;
+    private static final float APROXIMADO = 0.4f;
+
+    private static final int MINIMO_PREFIXO = 2;
+    private static final int MINIMO_APROXIMADO = 4;
+    private static final int MAXIMO_EXPANSOES_PREFIXO = 64;
+
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> termos = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> variantes = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> termosPorDocumento = new ConcurrentHashMap<>();
+
+    // Minúsculas e sem acentos: "Pão de Açúcar" -> "pao de acucar"
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT).trim();
+    }
+
+    public static List<String> termos(String texto) {
+        List<String> resultado = new ArrayList<>();
+        for (String termo : SEPARADORES.split(normalizar(texto))) {
+            if (!termo.isEmpty() && !IRRELEVANTES.contains(termo)) {
+                resultado.add(termo);
+            }
+        }
+        return resultado;
+    }
+
+    // Substitui o conteúdo indexado do documento. campos: texto -> peso do campo
+    public synchronized void indexar(Long id, Map<String, Float> campos) {
+        remover(id);
+        Map<String, Float> pesos = new HashMap<>();
+        campos.forEach((texto, peso) -> {
+            for (String termo : termos(texto)) {
+                pesos.merge(termo, peso, Math::max);
+            }
+        });
+        if (pesos.isEmpty()) {
+            return;
+        }
+        pesos.forEach((termo, peso) -> termos.compute(termo, (t, documentos) -> {
+            if (documentos == null) {
+                documentos = new ConcurrentHashMap<>();
+                registrarVariantes(t);
+            }
+            documentos.put(id, peso);
+            return documentos;
+        }));
+        termosPorDocumento.put(id, Set.copyOf(pesos.keySet()));
+    }
+
+    public synchronized void remover(Long id) {
+        Set<String> anteriores = termosPorDocumento.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String termo : anteriores) {
+            termos.computeIfPresent(termo, (t, documentos) -> {
+                documentos.remove(id);
+                if (documentos.isEmpty()) {
+                    removerVariantes(t);
+                    return null;
+                }
+                return documentos;
+            });
+        }
+    }
+
+    public synchronized void limpar() {
+        termos.clear();
+        variantes.clear();
+        termosPorDocumento.clear();
+    }
+
+    public int totalDocumentos() {
+        return termosPorDocumento.size();
+    }
+
+    // Variantes por deleção registradas (somem junto com o último documento de cada termo)
+    int totalVariantes() {
+        return variantes.size();
+    }
+
+    // IDs ordenados por relevância. Todos os termos da consulta precisam corresponder (exato, prefixo ou
+    // aproximado); o documento soma, por termo da consulta, a melhor correspondência encontrada
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> termosConsulta = termos(consulta);
+        if (termosConsulta.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Float> pontuacao = null;
+        for (String termoConsulta : new LinkedHashSet<>(termosConsulta)) {
+            Map<Long, Float> doTermo = pontuarTermo(termoConsulta);
+            if (pontuacao == null) {
+                pontuacao = doTermo;
+            } else {
+                pontuacao.keySet().retainAll(doTermo.keySet());
+                pontuacao.replaceAll((id, pontos) -> pontos + doTermo.get(id));
+            }
+            if (pontuacao.isEmpty()) {
+                return List.of();
+            }
+        }
+        return pontuacao.entrySet().stream()
+                .sorted(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limite)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Map<Long, Float> pontuarTermo(String termoConsulta) {
+        Map<Long, Float> pontuacao = new HashMap<>();
+        acumular(pontuacao, termos.get(termoConsulta), EXATO);
+
+        if (termoConsulta.length() >= MINIMO_PREFIXO) {
+            int expansoes = 0;
+            for (Map.Entry<String, Map<Long, Float>> entrada
+                    : termos.subMap(termoConsulta, false, termoConsulta + Character.MAX_VALUE, false).entrySet()) {
+                // Prefixos mais próximos do termo completo valem mais
+                float proporcao = (float) termoConsulta.length() / entrada.getKey().length();
+                acumular(pontuacao, entrada.getValue(), PREFIXO * proporcao);
+                if (++expansoes >= MAXIMO_EXPANSOES_PREFIXO) {
+                    break;
+                }
+            }
+        }
+
+        if (termoConsulta.length() >= MINIMO_APROXIMADO) {
+            for (String candidato : candidatosAproximados(termoConsulta)) {
+                acumular(pontuacao, termos.get(candidato), APROXIMADO);
+            }
+        }
+        return pontuacao;
+    }
+
+    private static void acumular(Map<Long, Float> pontuacao, Map<Long, Float> documentos, float fator) {
+        if (documentos == null) {
+            return;
+        }
+        documentos.forEach((id, pesoCampo) -> pontuacao.merge(id, pesoCampo * fator, Math::max));
+    }
+
+    // Termos do índice a distância 1 (inserção, remoção, troca ou transposição) do termo consultado
+    private Set<String> candidatosAproximados(String termoConsulta) {
+        Set<String> candidatos = new HashSet<>();
+        for (String variante : variantesDe(termoConsulta)) {
+            Set<String> termosVariante = variantes.get(variante);
+            if (termosVariante != null) {
+                candidatos.addAll(termosVariante);
+            }
+        }
+        candidatos.remove(termoConsulta);
+        candidatos.removeIf(candidato -> !distanciaAteUm(termoConsulta, candidato));
+        return candidatos;
+    }
+
+    private void registrarVariantes(String termo) {
+        if (termo.length() < MINIMO_APROXIMADO - 1) {
+            return;
+        }
+        for (String variante : variantesDe(termo)) {
+            variantes.computeIfAbsent(variante, v -> ConcurrentHashMap.newKeySet()).add(termo);
+        }
+    }
+
+    private void removerVariantes(String termo) {
+        for (String variante : variantesDe(termo)) {
+            variantes.computeIfPresent(variante, (v, termosVariante) -> {
+                termosVariante.remove(termo);
+                return termosVariante.isEmpty() ? null : termosVariante;
+            });
+        }
+    }
+
+    // O próprio termo e todas as formas com um caractere removido
+    private static Set<String> variantesDe(String termo) {
+        Set<String> resultado = new HashSet<>();
+        resultado.add(termo);
+        for (int i = 0; i < termo.length(); i++) {
+            resultado.add(termo.substring(0, i) + termo.substring(i + 1));
+        }
+        return resultado;
+    }
+
+    static boolean distanciaAteUm(String a, String b) {
+        int diferenca = a.length() - b.length();
+        if (Math.abs(diferenca) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (diferenca > 0) {
+            return a.substring(i + 1).equals(b.substring(i));
+        }
+        if (diferenca < 0) {
+            return a.substring(i).equals(b.substring(i + 1));
+        }
+        if (i == a.length()) {
+            return true;
+        }
+        // Troca de um caractere ou transposição de dois vizinhos
+        return a.substring(i + 1).equals(b.substring(i + 1))
+                || (i + 1 < a.length()
+                        && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                        && a.substring(i + 2).equals(b.substring(i + 2)));
+    }
+}
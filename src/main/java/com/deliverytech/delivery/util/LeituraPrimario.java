@@ -0,0 +1,41 @@
+package com.deliverytech.delivery.util;
+
+import java.util.function.Supplier;
+
+// Leituras que precisam enxergar o último commit do banco primário mesmo em transações somente leitura,
+// que normalmente vão para a réplica: cargas de estruturas em memória mantidas depois pelas escritas
+// (índices, quadro de pedidos, contadores de estoque, cache do cardápio), a consulta de chaves recém-gravadas
+// e leituras que decidem escritas (ex.: reservas vencidas a cancelar).
+// A escolha do banco é feita na primeira consulta da transação, então a marcação precisa envolvê-la.
+public final class LeituraPrimario {
+
+    private static final ThreadLocal<Boolean> ATIVA = new ThreadLocal<>();
+
+    private LeituraPrimario() {
+    }
+
+    public static boolean ativa() {
+        return Boolean.TRUE.equals(ATIVA.get());
+    }
+
+    public static void executar(Runnable acao) {
+        executar(() -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    public static <T> T executar(Supplier<T> acao) {
+        Boolean anterior = ATIVA.get();
+        ATIVA.set(Boolean.TRUE);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior == null) {
+                ATIVA.remove();
+            } else {
+                ATIVA.set(anterior);
+            }
+        }
+    }
+}
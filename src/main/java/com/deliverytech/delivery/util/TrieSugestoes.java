@@ -0,0 +1,262 @@
+package com.deliverytech.delivery.util;
+
+import com.deliverytech.delivery.dto.Sugestao;
+import com.deliverytech.delivery.enums.TipoSugestao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Trie compacta (radix) de sugestões: cada aresta guarda um trecho da chave, e nós com um único filho
+// e sem sugestões são fundidos. Cada nó mantém a maior popularidade da sua subárvore, então as k melhores
+// sugestões de um prefixo saem de uma busca pela melhor opção que só visita os ramos necessários.
+// Chaves já normalizadas (IndiceTextual.normalizar); a popularidade é ajustada por incrementos.
+public final class TrieSugestoes {
+
+    private static final No[] SEM_FILHOS = new No[0];
+    private static final Sugestao[] SEM_SUGESTOES = new Sugestao[0];
+
+    private static final class No {
+        private String rotulo;
+        private No[] filhos = SEM_FILHOS;
+        private Sugestao[] sugestoes = SEM_SUGESTOES;
+        private long melhor;
+
+        private No(String rotulo) {
+            this.rotulo = rotulo;
+        }
+    }
+
+    // Candidato da busca: um nó ainda não explorado ou uma sugestão pronta
+    private record Candidato(long popularidade, No no, Sugestao sugestao) {}
+
+    private final No raiz = new No("");
+    private final ReadWriteLock trava = new ReentrantReadWriteLock();
+    private int totalSugestoes;
+
+    // Soma delta à popularidade da sugestão (chave, tipo); com popularidade zero ou negativa ela sai da trie.
+    // O texto exibido é o da primeira inclusão da chave
+    public void ajustar(String chave, String texto, TipoSugestao tipo, long delta) {
+        if (chave.isEmpty() || delta == 0) {
+            return;
+        }
+        trava.writeLock().lock();
+        try {
+            List<No> caminho = new ArrayList<>();
+            No no = descer(chave, caminho, delta > 0);
+            if (no == null) {
+                return;
+            }
+            aplicar(no, texto, tipo, delta);
+            for (int i = caminho.size() - 1; i >= 0; i--) {
+                No atual = caminho.get(i);
+                if (i > 0) {
+                    compactar(caminho.get(i - 1), atual);
+                }
+                recalcular(atual);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public List<Sugestao> sugerir(String prefixo, int limite) {
+        if (prefixo.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        trava.readLock().lock();
+        try {
+            No inicio = localizar(prefixo);
+            if (inicio == null) {
+                return List.of();
+            }
+            PriorityQueue<Candidato> fila = new PriorityQueue<>(
+                    (a, b) -> Long.compare(b.popularidade(), a.popularidade()));
+            fila.add(new Candidato(inicio.melhor, inicio, null));
+            List<Sugestao> resultado = new ArrayList<>(limite);
+            while (!fila.isEmpty() && resultado.size() < limite) {
+                Candidato candidato = fila.poll();
+                if (candidato.sugestao() != null) {
+                    resultado.add(candidato.sugestao());
+                    continue;
+                }
+                for (Sugestao sugestao : candidato.no().sugestoes) {
+                    fila.add(new Candidato(sugestao.popularidade(), null, sugestao));
+                }
+                for (No filho : candidato.no().filhos) {
+                    fila.add(new Candidato(filho.melhor, filho, null));
+                }
+            }
+            return resultado;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int totalSugestoes() {
+        return totalSugestoes;
+    }
+
+    public void limpar() {
+        trava.writeLock().lock();
+        try {
+            raiz.filhos = SEM_FILHOS;
+            raiz.sugestoes = SEM_SUGESTOES;
+            raiz.melhor = 0;
+            totalSugestoes = 0;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // Nó da chave, guardando o caminho desde a raiz; com criar = false devolve null se a chave não existe
+    private No descer(String chave, List<No> caminho, boolean criar) {
+        No no = raiz;
+        caminho.add(no);
+        int i = 0;
+        while (i < chave.length()) {
+            int posicao = posicaoFilho(no, chave.charAt(i));
+            if (posicao < 0) {
+                if (!criar) {
+                    return null;
+                }
+                No novo = new No(chave.substring(i));
+                no.filhos = inserir(no.filhos, -posicao - 1, novo);
+                caminho.add(novo);
+                return novo;
+            }
+            No filho = no.filhos[posicao];
+            int comum = prefixoComum(filho.rotulo, chave, i);
+            if (comum < filho.rotulo.length()) {
+                if (!criar) {
+                    return null;
+                }
+                // Divide a aresta: o trecho comum vira um nó intermediário
+                No meio = new No(filho.rotulo.substring(0, comum));
+                filho.rotulo = filho.rotulo.substring(comum);
+                meio.filhos = new No[] { filho };
+                meio.melhor = filho.melhor;
+                no.filhos[posicao] = meio;
+                filho = meio;
+            }
+            i += comum;
+            no = filho;
+            caminho.add(no);
+        }
+        return no;
+    }
+
+    // Nó em que o prefixo termina (o prefixo pode acabar no meio do rótulo da aresta)
+    private No localizar(String prefixo) {
+        No no = raiz;
+        int i = 0;
+        while (i < prefixo.length()) {
+            int posicao = posicaoFilho(no, prefixo.charAt(i));
+            if (posicao < 0) {
+                return null;
+            }
+            No filho = no.filhos[posicao];
+            int comum = prefixoComum(filho.rotulo, prefixo, i);
+            if (i + comum == prefixo.length()) {
+                return filho;
+            }
+            if (comum < filho.rotulo.length()) {
+                return null;
+            }
+            i += comum;
+            no = filho;
+        }
+        return no;
+    }
+
+    private void aplicar(No no, String texto, TipoSugestao tipo, long delta) {
+        for (int i = 0; i < no.sugestoes.length; i++) {
+            Sugestao atual = no.sugestoes[i];
+            if (atual.tipo() == tipo) {
+                long popularidade = atual.popularidade() + delta;
+                if (popularidade > 0) {
+                    no.sugestoes[i] = new Sugestao(atual.texto(), tipo, popularidade);
+                } else {
+                    no.sugestoes = remover(no.sugestoes, i);
+                    totalSugestoes--;
+                }
+                return;
+            }
+        }
+        if (delta > 0) {
+            no.sugestoes = Arrays.copyOf(no.sugestoes, no.sugestoes.length + 1);
+            no.sugestoes[no.sugestoes.length - 1] = new Sugestao(texto, tipo, delta);
+            totalSugestoes++;
+        }
+    }
+
+    // Remove o nó vazio ou o funde com o único filho, mantendo a trie compacta
+    private static void compactar(No pai, No no) {
+        if (no.sugestoes.length > 0) {
+            return;
+        }
+        if (no.filhos.length == 0) {
+            int posicao = posicaoFilho(pai, no.rotulo.charAt(0));
+            pai.filhos = remover(pai.filhos, posicao);
+        } else if (no.filhos.length == 1) {
+            No filho = no.filhos[0];
+            no.rotulo = no.rotulo + filho.rotulo;
+            no.filhos = filho.filhos;
+            no.sugestoes = filho.sugestoes;
+        }
+    }
+
+    private static void recalcular(No no) {
+        long melhor = 0;
+        for (Sugestao sugestao : no.sugestoes) {
+            melhor = Math.max(melhor, sugestao.popularidade());
+        }
+        for (No filho : no.filhos) {
+            melhor = Math.max(melhor, filho.melhor);
+        }
+        no.melhor = melhor;
+    }
+
+    // Busca binária pelo primeiro caractere do rótulo (os filhos ficam ordenados)
+    private static int posicaoFilho(No no, char c) {
+        int inicio = 0;
+        int fim = no.filhos.length - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            char atual = no.filhos[meio].rotulo.charAt(0);
+            if (atual < c) {
+                inicio = meio + 1;
+            } else if (atual > c) {
+                fim = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(inicio + 1);
+    }
+
+    private static int prefixoComum(String rotulo, String chave, int inicio) {
+        int limite = Math.min(rotulo.length(), chave.length() - inicio);
+        int i = 0;
+        while (i < limite && rotulo.charAt(i) == chave.charAt(inicio + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static <T> T[] inserir(T[] origem, int posicao, T valor) {
+        T[] destino = Arrays.copyOf(origem, origem.length + 1);
+        System.arraycopy(origem, posicao, destino, posicao + 1, origem.length - posicao);
+        destino[posicao] = valor;
+        return destino;
+    }
+
+    private static <T> T[] remover(T[] origem, int posicao) {
+        T[] destino = Arrays.copyOf(origem, origem.length - 1);
+        System.arraycopy(origem, posicao + 1, destino, posicao, origem.length - posicao - 1);
+        return destino;
+    }
+}
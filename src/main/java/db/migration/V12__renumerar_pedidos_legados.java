@@ -0,0 +1,62 @@
+package db.migration;
+
+import com.deliverytech.delivery.service.NumeradorPedidos;
+import com.deliverytech.delivery.util.GeradorSnowflake;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Números de pedido gravados antes da numeração pelo servidor (ex.: PED1234567890) não seguem a ordem de
+// criação e, como texto, ficam acima dos números gerados (PED0...), o que quebraria a listagem por número.
+// Cada número fora do formato gerado é reescrito no formato atual a partir de data_pedido, em ordem de
+// (data_pedido, id), com o nó reservado NO_NUMEROS_MIGRADOS: os novos números seguem a ordem de criação
+// e não colidem com os das instâncias. O número original fica em numero_pedido_legado.
+public class V12__renumerar_pedidos_legados extends BaseJavaMigration {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexao = context.getConnection();
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("ALTER TABLE pedidos ADD COLUMN numero_pedido_legado VARCHAR(50)");
+        }
+
+        // O relógio do gerador é a data do pedido em leitura (antes da época do gerador, a própria época);
+        // pedidos no mesmo milissegundo recebem sequências seguidas
+        long epoca = GeradorSnowflake.EPOCA.toEpochMilli();
+        AtomicLong dataPedido = new AtomicLong(epoca);
+        GeradorSnowflake gerador = new GeradorSnowflake(NumeradorPedidos.NO_NUMEROS_MIGRADOS,
+                () -> Math.max(dataPedido.get(), epoca));
+
+        try (Statement consulta = conexao.createStatement();
+             ResultSet pedidos = consulta.executeQuery(
+                     "SELECT id, numero_pedido, data_pedido FROM pedidos ORDER BY data_pedido, id");
+             PreparedStatement atualizacao = conexao.prepareStatement(
+                     "UPDATE pedidos SET numero_pedido_legado = numero_pedido, numero_pedido = ? WHERE id = ?")) {
+            int pendentes = 0;
+            while (pedidos.next()) {
+                if (NumeradorPedidos.gerado(pedidos.getString("numero_pedido"))) {
+                    continue;
+                }
+                dataPedido.set(pedidos.getTimestamp("data_pedido").getTime());
+                atualizacao.setString(1, NumeradorPedidos.PREFIXO + GeradorSnowflake.codificar(gerador.proximo()));
+                atualizacao.setLong(2, pedidos.getLong("id"));
+                atualizacao.addBatch();
+                if (++pendentes == TAMANHO_LOTE) {
+                    atualizacao.executeBatch();
+                    pendentes = 0;
+                }
+            }
+            if (pendentes > 0) {
+                atualizacao.executeBatch();
+            }
+        }
+    }
+}
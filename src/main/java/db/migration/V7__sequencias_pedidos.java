@@ -0,0 +1,36 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// IDs de pedidos, itens e histórico alocados por sequência (allocationSize = 50 no Hibernate), o que permite
+// agrupar os INSERTs em lotes JDBC. O otimizador pooled do Hibernate trata cada valor da sequência como o
+// teto de um bloco (entrega valor - 49 até valor), então cada sequência começa em MAX(id) + 50 da própria
+// tabela: o primeiro bloco fica logo acima dos IDs já gerados pela coluna IDENTITY, qualquer que seja o volume
+public class V7__sequencias_pedidos extends BaseJavaMigration {
+
+    private static final long TAMANHO_BLOCO = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        criarSequencia(context, "pedidos_seq", "pedidos");
+        criarSequencia(context, "itens_pedido_seq", "itens_pedido");
+        criarSequencia(context, "pedidos_historico_status_seq", "pedidos_historico_status");
+    }
+
+    private static void criarSequencia(Context context, String sequencia, String tabela) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maiorId;
+            try (ResultSet resultado = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tabela)) {
+                resultado.next();
+                maiorId = resultado.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE " + sequencia
+                    + " START WITH " + (maiorId + TAMANHO_BLOCO) + " INCREMENT BY " + TAMANHO_BLOCO);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- Número do pedido único (o índice simples de V2 passa a ser único). Números repetidos gravados antes
+-- disso são renomeados primeiro: a ocorrência de menor ID fica como está e cada cópia seguinte recebe
+-- o sufixo "-<id>" (cortando o fim do texto original, se preciso, para caber nos 50 caracteres da coluna)
+UPDATE pedidos p
+SET numero_pedido = LEFT(p.numero_pedido, 49 - LENGTH(CAST(p.id AS VARCHAR))) || '-' || p.id
+WHERE EXISTS (SELECT 1 FROM pedidos o WHERE o.numero_pedido = p.numero_pedido AND o.id < p.id);
+
+DROP INDEX idx_pedidos_numero_pedido;
+CREATE UNIQUE INDEX idx_pedidos_numero_pedido ON pedidos (numero_pedido);
+
+-- Chaves de idempotência da criação de pedidos (cabeçalho Idempotency-Key): uma nova tentativa com a
+-- mesma chave devolve o pedido já criado. Linhas vencidas são apagadas periodicamente
+CREATE TABLE chaves_idempotencia (
+    chave VARCHAR(100) NOT NULL PRIMARY KEY,
+    pedido_id BIGINT NOT NULL,
+    data_criacao TIMESTAMP NOT NULL,
+    expira_em TIMESTAMP NOT NULL,
+    CONSTRAINT fk_chaves_idempotencia_pedido FOREIGN KEY (pedido_id) REFERENCES pedidos (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_chaves_idempotencia_expira ON chaves_idempotencia (expira_em);
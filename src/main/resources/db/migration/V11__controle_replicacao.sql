@@ -0,0 +1,7 @@
+-- Marca de tempo gravada periodicamente no primário e lida na réplica para medir o atraso da replicação
+CREATE TABLE controle_replicacao (
+    id INTEGER NOT NULL PRIMARY KEY,
+    marcado_em TIMESTAMP NOT NULL
+);
+
+INSERT INTO controle_replicacao (id, marcado_em) VALUES (1, CURRENT_TIMESTAMP);
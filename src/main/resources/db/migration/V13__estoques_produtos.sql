@@ -0,0 +1,12 @@
+-- Estoque físico fora da tabela produtos: os UPDATEs da gravação das baixas não passam mais pela entidade
+-- Produto (cache de segundo nível) e deixam de invalidar a região "produtos"
+CREATE TABLE estoques_produtos (
+    produto_id BIGINT NOT NULL PRIMARY KEY,
+    quantidade INTEGER NOT NULL,
+    CONSTRAINT fk_estoques_produtos_produto FOREIGN KEY (produto_id) REFERENCES produtos (id) ON DELETE CASCADE
+);
+
+INSERT INTO estoques_produtos (produto_id, quantidade)
+SELECT id, estoque FROM produtos WHERE estoque IS NOT NULL;
+
+ALTER TABLE produtos DROP COLUMN estoque;
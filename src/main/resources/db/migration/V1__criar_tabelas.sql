@@ -0,0 +1,81 @@
+-- Schema inicial (espelha o mapeamento das entidades)
+
+CREATE TABLE clientes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    telefone VARCHAR(255) NOT NULL,
+    endereco VARCHAR(255) NOT NULL,
+    ativo BOOLEAN NOT NULL,
+    data_criacao TIMESTAMP NOT NULL,
+    data_atualizacao TIMESTAMP,
+    CONSTRAINT uk_clientes_email UNIQUE (email)
+);
+
+CREATE TABLE restaurantes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(255) NOT NULL,
+    categoria VARCHAR(255) NOT NULL,
+    endereco VARCHAR(255) NOT NULL,
+    telefone VARCHAR(255) NOT NULL,
+    taxa_entrega NUMERIC(10, 2) NOT NULL,
+    avaliacao NUMERIC(10, 2) NOT NULL,
+    ativo BOOLEAN NOT NULL,
+    data_criacao TIMESTAMP NOT NULL,
+    data_atualizacao TIMESTAMP
+);
+
+CREATE TABLE produtos (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(255) NOT NULL,
+    descricao TEXT,
+    preco NUMERIC(10, 2) NOT NULL,
+    promocao BOOLEAN NOT NULL,
+    preco_promocional NUMERIC(10, 2),
+    preco_efetivo NUMERIC(10, 2) NOT NULL,
+    categoria VARCHAR(100) NOT NULL,
+    url_imagem VARCHAR(255),
+    ativo BOOLEAN NOT NULL,
+    disponivel BOOLEAN NOT NULL,
+    tempo_preparo INTEGER,
+    data_criacao TIMESTAMP NOT NULL,
+    data_atualizacao TIMESTAMP,
+    restaurante_id BIGINT,
+    CONSTRAINT fk_produtos_restaurante FOREIGN KEY (restaurante_id) REFERENCES restaurantes (id)
+);
+
+CREATE TABLE pedidos (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    numero_pedido VARCHAR(50) NOT NULL,
+    data_pedido TIMESTAMP NOT NULL,
+    endereco_entrega TEXT NOT NULL,
+    subtotal NUMERIC(10, 2),
+    taxa_entrega NUMERIC(10, 2),
+    valor_total NUMERIC(10, 2) NOT NULL,
+    valor_desconto NUMERIC(10, 2),
+    observacoes TEXT,
+    tempo_estimado_entrega INTEGER,
+    data_entrega TIMESTAMP,
+    data_cancelamento TIMESTAMP,
+    motivo_cancelamento VARCHAR(255),
+    data_criacao TIMESTAMP NOT NULL,
+    data_atualizacao TIMESTAMP,
+    status VARCHAR(50) NOT NULL,
+    forma_pagamento VARCHAR(50),
+    cliente_id BIGINT NOT NULL,
+    restaurante_id BIGINT NOT NULL,
+    CONSTRAINT fk_pedidos_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id),
+    CONSTRAINT fk_pedidos_restaurante FOREIGN KEY (restaurante_id) REFERENCES restaurantes (id)
+);
+
+CREATE TABLE itens_pedido (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    quantidade INTEGER NOT NULL,
+    preco_unitario NUMERIC(10, 2) NOT NULL,
+    subtotal NUMERIC(10, 2) NOT NULL,
+    observacoes TEXT,
+    pedido_id BIGINT NOT NULL,
+    produto_id BIGINT NOT NULL,
+    CONSTRAINT fk_itens_pedido_pedido FOREIGN KEY (pedido_id) REFERENCES pedidos (id),
+    CONSTRAINT fk_itens_pedido_produto FOREIGN KEY (produto_id) REFERENCES produtos (id)
+);
@@ -0,0 +1,32 @@
+-- Índices compostos para os predicados mais usados pelos repositórios
+
+-- PedidoRepository
+-- findByStatusInOrderByDataPedidoAsc, findByStatusOrderByDataPedidoDesc, findPedidosPendentes
+CREATE INDEX idx_pedidos_status_data_pedido ON pedidos (status, data_pedido);
+-- findByRestauranteIdOrderByDataPedidoDesc, findByRestauranteAndStatus, countByRestauranteAndStatusNot
+CREATE INDEX idx_pedidos_restaurante_data_pedido ON pedidos (restaurante_id, data_pedido);
+-- findByClienteIdOrderByDataPedidoDesc, findByClienteAndStatus, countByCliente
+CREATE INDEX idx_pedidos_cliente_data_pedido ON pedidos (cliente_id, data_pedido);
+-- findByDataPedidoBetween, calcularVendasPorPeriodo, paginação keyset (data_pedido, id)
+CREATE INDEX idx_pedidos_data_pedido_id ON pedidos (data_pedido, id);
+-- findByNumeroPedido
+CREATE INDEX idx_pedidos_numero_pedido ON pedidos (numero_pedido);
+
+CREATE INDEX idx_itens_pedido_pedido ON itens_pedido (pedido_id);
+CREATE INDEX idx_itens_pedido_produto ON itens_pedido (produto_id);
+
+-- ProdutoRepository
+-- findProdutosDisponiveisPorRestaurante, findByRestauranteIdAndDisponivelTrue, countByRestauranteId
+CREATE INDEX idx_produtos_restaurante_disponivel ON produtos (restaurante_id, disponivel, ativo);
+-- findByCategoriaAndDisponivelTrue, findByRestauranteAndCategoria
+CREATE INDEX idx_produtos_categoria_disponivel ON produtos (categoria, disponivel);
+-- findByPrecoEfetivoLessThanEqual, findByPrecoEfetivoBetween
+CREATE INDEX idx_produtos_preco_efetivo ON produtos (preco_efetivo);
+
+-- RestauranteRepository
+-- findByNome, existsByNome
+CREATE INDEX idx_restaurantes_nome ON restaurantes (nome);
+-- findByCategoriaAndAtivoTrue, findByCategoria, findCategoriasDisponiveis
+CREATE INDEX idx_restaurantes_categoria_ativo ON restaurantes (categoria, ativo);
+-- findByTaxaEntregaBetween, findByTaxaEntregaLessThanEqual
+CREATE INDEX idx_restaurantes_taxa_entrega ON restaurantes (taxa_entrega);
@@ -11,22 +11,22 @@ INSERT INTO restaurantes (nome, categoria, endereco, telefone, taxa_entrega, ava
 ('Sushi Master', 'Japonesa', 'Rua Liberdade, 200 - São Paulo/SP', '(11) 3333-3333', 8.00, 4.8, NOW(), true);
 
 -- Inserir produtos
-INSERT INTO produto (nome, descricao, preco, categoria, ativo, disponivel, data_criacao, promocao, restaurante_id) VALUES
+INSERT INTO produtos (nome, descricao, preco, preco_efetivo, categoria, ativo, disponivel, data_criacao, promocao, restaurante_id) VALUES
 
 -- Pizzaria Bella
-('Pizza Margherita', 'Molho de tomate, mussarela e manjericão', 35.90, 'Pizza', true, true, NOW(), false, 1),
-('Pizza Calabresa', 'Molho de tomate, mussarela e calabresa', 38.90, 'Pizza', true, true, NOW(), false, 1),
-('Lasanha Bolonhesa', 'Lasanha tradicional com molho bolonhesa', 28.90, 'Massa', true, true, NOW(), false, 1),
+('Pizza Margherita', 'Molho de tomate, mussarela e manjericão', 35.90, 35.90, 'Pizza', true, true, NOW(), false, 1),
+('Pizza Calabresa', 'Molho de tomate, mussarela e calabresa', 38.90, 38.90, 'Pizza', true, true, NOW(), false, 1),
+('Lasanha Bolonhesa', 'Lasanha tradicional com molho bolonhesa', 28.90, 28.90, 'Massa', true, true, NOW(), false, 1),
 
 -- Burger House
-('X-Burger', 'Hambúrguer, queijo, alface e tomate', 18.90, 'Hambúrguer', true, true, NOW(), false, 2),
-('X-Bacon', 'Hambúrguer, queijo, bacon, alface e tomate', 22.90, 'Hambúrguer', true, true, NOW(), false, 2),
-('Batata Frita', 'Porção de batata frita crocante', 12.90, 'Acompanhamento', true, true, NOW(), false, 2),
+('X-Burger', 'Hambúrguer, queijo, alface e tomate', 18.90, 18.90, 'Hambúrguer', true, true, NOW(), false, 2),
+('X-Bacon', 'Hambúrguer, queijo, bacon, alface e tomate', 22.90, 22.90, 'Hambúrguer', true, true, NOW(), false, 2),
+('Batata Frita', 'Porção de batata frita crocante', 12.90, 12.90, 'Acompanhamento', true, true, NOW(), false, 2),
 
 -- Sushi Master
-('Combo Sashimi', '15 peças de sashimi variado', 45.90, 'Sashimi', true, true, NOW(), false, 3),
-('Hot Roll Salmão', '8 peças de hot roll de salmão', 32.90, 'Hot Roll', true, true, NOW(), false, 3),
-('Temaki Atum', 'Temaki de atum com cream cheese', 15.90, 'Temaki', true, true, NOW(), false, 3);
+('Combo Sashimi', '15 peças de sashimi variado', 45.90, 45.90, 'Sashimi', true, true, NOW(), false, 3),
+('Hot Roll Salmão', '8 peças de hot roll de salmão', 32.90, 32.90, 'Hot Roll', true, true, NOW(), false, 3),
+('Temaki Atum', 'Temaki de atum com cream cheese', 15.90, 15.90, 'Temaki', true, true, NOW(), false, 3);
 
 -- Inserir pedidos de exemplo
 INSERT INTO pedidos (numero_pedido, data_pedido, endereco_entrega, status, valor_total, observacoes, data_criacao, cliente_id, restaurante_id) VALUES
@@ -0,0 +1,2 @@
+-- Controle de concorrência otimista de pedidos (@Version em Pedido)
+ALTER TABLE pedidos ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
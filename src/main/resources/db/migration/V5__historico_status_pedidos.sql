@@ -0,0 +1,11 @@
+-- Linha do tempo de status dos pedidos (gravada pela máquina de estados)
+CREATE TABLE pedidos_historico_status (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pedido_id BIGINT NOT NULL,
+    status_anterior VARCHAR(50),
+    status VARCHAR(50) NOT NULL,
+    data_transicao TIMESTAMP NOT NULL,
+    CONSTRAINT fk_historico_status_pedido FOREIGN KEY (pedido_id) REFERENCES pedidos (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_historico_status_pedido_data ON pedidos_historico_status (pedido_id, data_transicao);
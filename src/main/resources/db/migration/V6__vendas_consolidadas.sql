@@ -0,0 +1,18 @@
+-- Consolidação de vendas por restaurante, hora e status (mantida pelas transições de pedidos)
+CREATE TABLE vendas_consolidadas (
+    restaurante_id BIGINT NOT NULL,
+    hora TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    valor_total NUMERIC(14, 2) NOT NULL,
+    CONSTRAINT pk_vendas_consolidadas PRIMARY KEY (restaurante_id, hora, status)
+);
+
+-- Consultas de período sem filtro de restaurante
+CREATE INDEX idx_vendas_consolidadas_hora ON vendas_consolidadas (hora);
+
+-- Carga a partir dos pedidos existentes
+INSERT INTO vendas_consolidadas (restaurante_id, hora, status, quantidade, valor_total)
+SELECT restaurante_id, DATE_TRUNC('HOUR', data_pedido), status, COUNT(*), SUM(valor_total)
+FROM pedidos
+GROUP BY restaurante_id, DATE_TRUNC('HOUR', data_pedido), status;
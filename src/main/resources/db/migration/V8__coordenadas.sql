@@ -0,0 +1,20 @@
+-- Coordenadas (graus decimais, WGS 84) dos restaurantes e dos endereços de entrega,
+-- e raio de entrega de cada restaurante (km)
+ALTER TABLE restaurantes ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE restaurantes ADD COLUMN longitude DOUBLE PRECISION;
+ALTER TABLE restaurantes ADD COLUMN raio_entrega_km DOUBLE PRECISION DEFAULT 5 NOT NULL;
+
+ALTER TABLE clientes ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE clientes ADD COLUMN longitude DOUBLE PRECISION;
+
+ALTER TABLE pedidos ADD COLUMN latitude_entrega DOUBLE PRECISION;
+ALTER TABLE pedidos ADD COLUMN longitude_entrega DOUBLE PRECISION;
+
+-- Dados iniciais
+UPDATE restaurantes SET latitude = -23.5614, longitude = -46.6559 WHERE nome = 'Pizzaria Bella';
+UPDATE restaurantes SET latitude = -23.5538, longitude = -46.6583 WHERE nome = 'Burger House';
+UPDATE restaurantes SET latitude = -23.5587, longitude = -46.6347 WHERE nome = 'Sushi Master';
+
+UPDATE clientes SET latitude = -23.5505, longitude = -46.6333 WHERE email = 'joao@email.com';
+UPDATE clientes SET latitude = -23.5632, longitude = -46.6541 WHERE email = 'maria@email.com';
+UPDATE clientes SET latitude = -23.5870, longitude = -46.6820 WHERE email = 'pedro@email.com';
@@ -0,0 +1,22 @@
+-- Estoque físico por produto (nulo = sem controle de estoque)
+ALTER TABLE produtos ADD COLUMN estoque INTEGER;
+
+-- Reservas de estoque por item de pedido. Também servem de fila da gravação em segundo plano:
+-- reservas CONSUMIDA ainda não foram descontadas de produtos.estoque; BAIXADA já foram
+CREATE TABLE reservas_estoque (
+    id BIGINT NOT NULL PRIMARY KEY,
+    pedido_id BIGINT NOT NULL,
+    produto_id BIGINT NOT NULL,
+    quantidade INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expira_em TIMESTAMP,
+    data_criacao TIMESTAMP NOT NULL,
+    CONSTRAINT fk_reservas_estoque_pedido FOREIGN KEY (pedido_id) REFERENCES pedidos (id) ON DELETE CASCADE,
+    CONSTRAINT fk_reservas_estoque_produto FOREIGN KEY (produto_id) REFERENCES produtos (id)
+);
+
+CREATE INDEX idx_reservas_estoque_pedido ON reservas_estoque (pedido_id, status);
+CREATE INDEX idx_reservas_estoque_status_expira ON reservas_estoque (status, expira_em);
+CREATE INDEX idx_reservas_estoque_produto_status ON reservas_estoque (produto_id, status);
+
+CREATE SEQUENCE reservas_estoque_seq START WITH 1 INCREMENT BY 50;
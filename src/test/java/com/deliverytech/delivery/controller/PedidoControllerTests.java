@@ -0,0 +1,211 @@
+package com.deliverytech.delivery.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.service.PedidoService;
+
+// Endpoints de pedidos contra o contexto completo (open-in-view desligado, schema das migrações)
+@SpringBootTest
+@AutoConfigureMockMvc
+class PedidoControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void atualizarDevolveRespostaComDetalhes() throws Exception {
+		mockMvc.perform(put("/api/pedidos/1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"observacoes\": \"Sem cebola e sem azeitona\"}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.id").value(1))
+			.andExpect(jsonPath("$.observacoes").value("Sem cebola e sem azeitona"))
+			.andExpect(jsonPath("$.clienteNome").value("João Silva"))
+			.andExpect(jsonPath("$.restauranteNome").value("Pizzaria Bella"))
+			.andExpect(jsonPath("$.itens").isNotEmpty());
+	}
+
+	// Duas criações com a mesma chave ao mesmo tempo: a primeira grava a chave e segura a transação aberta;
+	// a segunda não encontra a chave, cria seu pedido e fica bloqueada no INSERT da chave até a primeira
+	// fazer commit. Aí recebe a violação de unicidade, desfaz o próprio pedido e devolve o da primeira
+	@Test
+	void criacaoConcorrenteComMesmaChaveDevolveOPedidoOriginal() throws Exception {
+		String chave = UUID.randomUUID().toString();
+		CountDownLatch chaveGravada = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Pedido> primeira = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+				Pedido pedido = pedidoService.salvar(pedido(chave), chave);
+				chaveGravada.countDown();
+				aguardar(liberar);
+				return pedido;
+			}));
+			assertThat(chaveGravada.await(30, TimeUnit.SECONDS)).isTrue();
+
+			Future<MvcResult> segunda = executor.submit(() -> mockMvc.perform(post("/api/pedidos")
+					.header("Idempotency-Key", chave)
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(corpo(chave)))
+				.andReturn());
+			aguardarSessaoBloqueada();
+			liberar.countDown();
+
+			Pedido original = primeira.get(30, TimeUnit.SECONDS);
+			MvcResult resposta = segunda.get(30, TimeUnit.SECONDS);
+			assertThat(resposta.getResponse().getStatus()).isEqualTo(201);
+			assertThat(resposta.getResponse().getHeader("Idempotent-Replayed")).isEqualTo("true");
+			assertThat(resposta.getResponse().getContentAsString())
+				.contains("\"id\":" + original.getId() + ",")
+				.contains("\"numeroPedido\":\"" + original.getNumeroPedido() + "\"");
+
+			// Nova tentativa depois de tudo gravado: mesma resposta, sem outro pedido
+			mockMvc.perform(post("/api/pedidos")
+					.header("Idempotency-Key", chave)
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(corpo(chave)))
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "true"))
+				.andExpect(jsonPath("$.id").value(original.getId()))
+				.andExpect(jsonPath("$.numeroPedido").value(original.getNumeroPedido()));
+		} finally {
+			liberar.countDown();
+			executor.shutdown();
+		}
+
+		assertThat(jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM pedidos WHERE observacoes = ?", Integer.class, chave)).isEqualTo(1);
+	}
+
+	// A primeira criação segura a chave além do limite de trava do H2: a segunda recebe 409 (ainda em
+	// andamento) sem criar pedido, e uma nova tentativa depois do commit devolve o pedido original
+	@Test
+	void criacaoComMesmaChaveAindaEmAndamentoRespondeConflito() throws Exception {
+		String chave = UUID.randomUUID().toString();
+		CountDownLatch chaveGravada = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Pedido> primeira = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+				Pedido pedido = pedidoService.salvar(pedido(chave), chave);
+				chaveGravada.countDown();
+				aguardar(liberar);
+				return pedido;
+			}));
+			assertThat(chaveGravada.await(30, TimeUnit.SECONDS)).isTrue();
+
+			mockMvc.perform(post("/api/pedidos")
+					.header("Idempotency-Key", chave)
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(corpo(chave)))
+				.andExpect(status().isConflict());
+			liberar.countDown();
+			Pedido original = primeira.get(30, TimeUnit.SECONDS);
+
+			mockMvc.perform(post("/api/pedidos")
+					.header("Idempotency-Key", chave)
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(corpo(chave)))
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "true"))
+				.andExpect(jsonPath("$.id").value(original.getId()));
+		} finally {
+			liberar.countDown();
+			executor.shutdown();
+		}
+
+		assertThat(jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM pedidos WHERE observacoes = ?", Integer.class, chave)).isEqualTo(1);
+	}
+
+	// A segunda criação esperando pela trava da chave gravada (e ainda não confirmada) pela primeira
+	private void aguardarSessaoBloqueada() throws InterruptedException {
+		for (int tentativa = 0; tentativa < 1000; tentativa++) {
+			Integer esperando = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE EXECUTING_STATEMENT LIKE 'INSERT INTO chaves_idempotencia%'",
+				Integer.class);
+			if (esperando > 0) {
+				return;
+			}
+			Thread.sleep(5);
+		}
+		throw new AssertionError("A segunda criação não chegou a esperar pela chave da primeira");
+	}
+
+	private static void aguardar(CountDownLatch sinal) {
+		try {
+			sinal.await(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String corpo(String observacoes) {
+		return """
+			{"cliente": {"id": 1}, "restaurante": {"id": 1}, "enderecoEntrega": "Rua A, 123 - São Paulo/SP",
+			 "observacoes": "%s", "itens": [{"produto": {"id": 1}, "quantidade": 1}]}
+			""".formatted(observacoes);
+	}
+
+	private static Pedido pedido(String observacoes) {
+		Cliente cliente = new Cliente();
+		cliente.setId(1L);
+		Restaurante restaurante = new Restaurante();
+		restaurante.setId(1L);
+		Produto produto = new Produto();
+		produto.setId(1L);
+		ItemPedido item = new ItemPedido();
+		item.setProduto(produto);
+		item.setQuantidade(1);
+
+		Pedido pedido = new Pedido();
+		pedido.setCliente(cliente);
+		pedido.setRestaurante(restaurante);
+		pedido.setEnderecoEntrega("Rua A, 123 - São Paulo/SP");
+		pedido.setObservacoes(observacoes);
+		pedido.setItens(new ArrayList<>(List.of(item)));
+		return pedido;
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.deliverytech.delivery.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+// O estoque é informado na criação do produto e consultado/alterado pelos endpoints /{id}/estoque
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProdutoControllerTests {
+
+	private static final String PRODUTO = """
+		{"nome": "Pizza Quatro Queijos", "preco": 42.90, "categoria": "Pizza", "estoque": 7}
+		""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void estoqueSoDeEntradaNoProduto() throws Exception {
+		String criado = mockMvc.perform(post("/api/produtos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(PRODUTO))
+			.andExpect(status().isCreated())
+			.andExpect(jsonPath("$.estoque").doesNotExist())
+			.andReturn().getResponse().getContentAsString();
+		Integer id = JsonPath.read(criado, "$.id");
+
+		mockMvc.perform(get("/api/produtos/{id}", id))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.estoque").doesNotExist());
+		mockMvc.perform(get("/api/produtos/{id}/estoque", id))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.disponivel").value(7));
+
+		mockMvc.perform(put("/api/produtos/{id}", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(PRODUTO))
+			.andExpect(status().isBadRequest());
+	}
+
+}
@@ -0,0 +1,211 @@
+package com.deliverytech.delivery.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+// Executa cada finder, captura o SQL que o Hibernate de fato enviou ao banco (com os parâmetros ligados)
+// e roda EXPLAIN nele, verificando que o H2 usa um índice (schema criado pelas migrações do Flyway)
+// em vez de varrer a tabela inteira
+@SpringBootTest
+class IndicesConsultaTests {
+
+	private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+	private static final LocalDateTime FIM = LocalDateTime.of(2025, 1, 31, 23, 59, 59);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PedidoRepository pedidoRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private RestauranteRepository restauranteRepository;
+
+	@Autowired
+	private VendaConsolidadaRepository vendaConsolidadaRepository;
+
+	static Stream<Arguments> consultas() {
+		return Stream.of(
+			consulta("PedidoRepository.findByStatusInOrderByDataPedidoAsc", t -> t.pedidoRepository
+				.findByStatusInOrderByDataPedidoAsc(List.of(StatusPedido.PENDENTE, StatusPedido.CONFIRMADO, StatusPedido.PREPARANDO))),
+			consulta("PedidoRepository.findByStatusOrderByDataPedidoDesc", t -> t.pedidoRepository
+				.findByStatusOrderByDataPedidoDesc(StatusPedido.PENDENTE)),
+			consulta("PedidoRepository.findByRestauranteIdOrderByDataPedidoDesc", t -> t.pedidoRepository
+				.findByRestauranteIdOrderByDataPedidoDesc(1L)),
+			consulta("PedidoRepository.findByClienteIdOrderByDataPedidoDesc", t -> t.pedidoRepository
+				.findByClienteIdOrderByDataPedidoDesc(1L)),
+			consulta("PedidoRepository.findByDataPedidoBetween", t -> t.pedidoRepository
+				.findByDataPedidoBetween(INICIO, FIM)),
+			consulta("PedidoRepository.findPedidosDodia", t -> t.pedidoRepository
+				.findPedidosDodia()),
+			consulta("PedidoRepository.findPaginaApos", t -> t.pedidoRepository
+				.findPaginaApos(FIM, 10L, Limit.of(20))),
+			consulta("PedidoRepository.findByNumeroPedido", t -> t.pedidoRepository
+				.findByNumeroPedido("PED1234567890")),
+			consulta("PedidoRepository.findByNumeroPedidoLessThanOrderByNumeroPedidoDesc", t -> t.pedidoRepository
+				.findByNumeroPedidoLessThanOrderByNumeroPedidoDesc("PED1234567890", Limit.of(20))),
+			consulta("ProdutoRepository.findProdutosDisponiveisPorRestaurante", t -> t.produtoRepository
+				.findProdutosDisponiveisPorRestaurante(1L)),
+			consulta("ProdutoRepository.findByRestauranteIdAndDisponivelTrue", t -> t.produtoRepository
+				.findByRestauranteIdAndDisponivelTrue(1L)),
+			consulta("ProdutoRepository.findByCategoriaAndDisponivelTrue", t -> t.produtoRepository
+				.findByCategoriaAndDisponivelTrue("Pizza")),
+			consulta("ProdutoRepository.findByPrecoEfetivoLessThanEqual", t -> t.produtoRepository
+				.findByPrecoEfetivoLessThanEqual(new BigDecimal("20.00"))),
+			consulta("ProdutoRepository.findByPrecoEfetivoBetween", t -> t.produtoRepository
+				.findByPrecoEfetivoBetween(new BigDecimal("10.00"), new BigDecimal("20.00"))),
+			consulta("RestauranteRepository.findByNome", t -> t.restauranteRepository
+				.findByNome("Pizzaria Bella")),
+			consulta("RestauranteRepository.findByCategoriaAndAtivoTrue", t -> t.restauranteRepository
+				.findByCategoriaAndAtivoTrue("Italiana")),
+			consulta("RestauranteRepository.findByTaxaEntregaBetween", t -> t.restauranteRepository
+				.findByTaxaEntregaBetween(new BigDecimal("3.00"), new BigDecimal("6.00"))),
+			consulta("VendaConsolidadaRepository.somarVendas", t -> t.vendaConsolidadaRepository
+				.somarVendas(INICIO, FIM, null)),
+			consulta("VendaConsolidadaRepository.somarVendas (restaurante)", t -> t.vendaConsolidadaRepository
+				.somarVendas(INICIO, FIM, 1L))
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("consultas")
+	void finderUsaIndice(String finder, Consumer<IndicesConsultaTests> chamada) {
+		List<ComandoSql> comandos = CapturaSql.capturar(() -> chamada.accept(this));
+		ComandoSql consulta = comandos.stream()
+			.filter(comando -> comando.sql().stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+			.findFirst()
+			.orElseThrow(() -> new AssertionError("Nenhum SELECT executado por " + finder + ": " + comandos));
+
+		String plano = jdbcTemplate.queryForObject("EXPLAIN " + consulta.sql(), String.class,
+			consulta.parametros().toArray());
+
+		assertThat(plano)
+			.as("Plano de %s (%s): %s", finder, consulta.sql(), plano)
+			.doesNotContain("tableScan");
+	}
+
+	private static Arguments consulta(String finder, Consumer<IndicesConsultaTests> chamada) {
+		return Arguments.of(finder, chamada);
+	}
+
+	record ComandoSql(String sql, List<Object> parametros) {}
+
+	// Envolve o DataSource da aplicação para registrar o SQL e os parâmetros de cada PreparedStatement
+	// executado na thread do teste enquanto uma captura está ativa
+	@TestConfiguration
+	static class CapturaSql {
+
+		private static final ThreadLocal<List<ComandoSql>> COMANDOS = new ThreadLocal<>();
+
+		@Bean
+		static BeanPostProcessor capturaSqlDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+						return envolver(dataSource);
+					}
+					return bean;
+				}
+			};
+		}
+
+		static List<ComandoSql> capturar(Runnable acao) {
+			List<ComandoSql> comandos = new ArrayList<>();
+			COMANDOS.set(comandos);
+			try {
+				acao.run();
+			} finally {
+				COMANDOS.remove();
+			}
+			return comandos;
+		}
+
+		private static DataSource envolver(DataSource dataSource) {
+			return new DelegatingDataSource(dataSource) {
+				@Override
+				public Connection getConnection() throws SQLException {
+					return conexao(super.getConnection());
+				}
+
+				@Override
+				public Connection getConnection(String usuario, String senha) throws SQLException {
+					return conexao(super.getConnection(usuario, senha));
+				}
+			};
+		}
+
+		private static Connection conexao(Connection conexao) {
+			return (Connection) Proxy.newProxyInstance(CapturaSql.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, metodo, args) -> {
+					Object resultado = invocar(conexao, metodo, args);
+					if (metodo.getName().equals("prepareStatement") && args[0] instanceof String sql) {
+						return comando((PreparedStatement) resultado, sql);
+					}
+					return resultado;
+				});
+		}
+
+		private static PreparedStatement comando(PreparedStatement comando, String sql) {
+			Map<Integer, Object> parametros = new TreeMap<>();
+			return (PreparedStatement) Proxy.newProxyInstance(CapturaSql.class.getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, (proxy, metodo, args) -> {
+					String nome = metodo.getName();
+					if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+						parametros.put(indice, nome.equals("setNull") ? null : args[1]);
+					} else if (nome.equals("clearParameters")) {
+						parametros.clear();
+					} else if (nome.startsWith("execute")) {
+						List<ComandoSql> comandos = COMANDOS.get();
+						if (comandos != null) {
+							comandos.add(new ComandoSql(sql, new ArrayList<>(parametros.values())));
+						}
+					}
+					return invocar(comando, metodo, args);
+				});
+		}
+
+		private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+			try {
+				return metodo.invoke(alvo, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,216 @@
+package com.deliverytech.delivery.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exception.EstoqueInsuficienteException;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+// Reserva de estoque ponta a ponta: contador em memória, reservas_estoque e estoques_produtos.
+// Cada teste usa um produto novo, então o que outros testes (ou as tarefas agendadas) fazem não interfere
+// nas quantidades verificadas
+@SpringBootTest
+class EstoqueServiceTests {
+
+	@Autowired
+	private EstoqueService estoqueService;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ProdutoService produtoService;
+
+	@Autowired
+	private TarefasEstoque tarefasEstoque;
+
+	@Autowired
+	private RestauranteRepository restauranteRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void pedidosSimultaneosPelaUltimaUnidadeSoUmReserva() throws Exception {
+		Long produtoId = criarProduto(1);
+		CountDownLatch largada = new CountDownLatch(1);
+		Callable<Pedido> pedir = () -> {
+			largada.await();
+			return pedidoService.salvar(pedido(produtoId, 1));
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<Pedido>> tentativas = List.of(executor.submit(pedir), executor.submit(pedir));
+			largada.countDown();
+
+			int criados = 0;
+			List<Throwable> recusas = new ArrayList<>();
+			for (Future<Pedido> tentativa : tentativas) {
+				try {
+					tentativa.get();
+					criados++;
+				} catch (ExecutionException e) {
+					recusas.add(e.getCause());
+				}
+			}
+
+			assertThat(criados).isEqualTo(1);
+			assertThat(recusas).singleElement().isInstanceOf(EstoqueInsuficienteException.class);
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(disponivel(produtoId)).isZero();
+		assertThat(reservas(produtoId, "ATIVA")).isEqualTo(1);
+	}
+
+	@Test
+	void pedidoDesfeitoDevolveOEstoque() {
+		Long produtoId = criarProduto(2);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			pedidoService.salvar(pedido(produtoId, 2));
+			assertThat(disponivel(produtoId)).isZero();
+			status.setRollbackOnly();
+		});
+
+		assertThat(disponivel(produtoId)).isEqualTo(2);
+		assertThat(reservas(produtoId, "ATIVA")).isZero();
+	}
+
+	@Test
+	void cancelamentoLiberaAReserva() {
+		Long produtoId = criarProduto(3);
+		Pedido pedido = pedidoService.salvar(pedido(produtoId, 2));
+		assertThat(disponivel(produtoId)).isEqualTo(1);
+
+		pedidoService.cancelarPedido(pedido.getId(), "Cliente desistiu");
+
+		assertThat(disponivel(produtoId)).isEqualTo(3);
+		assertThat(reservas(produtoId, "LIBERADA")).isEqualTo(1);
+	}
+
+	@Test
+	void reservaVencidaCancelaOPedidoPendenteELibera() {
+		Long produtoId = criarProduto(3);
+		Pedido pedido = pedidoService.salvar(pedido(produtoId, 3));
+		assertThat(disponivel(produtoId)).isZero();
+		jdbcTemplate.update("UPDATE reservas_estoque SET expira_em = ? WHERE pedido_id = ?",
+			LocalDateTime.now().minusMinutes(1), pedido.getId());
+
+		tarefasEstoque.expirarReservas();
+
+		assertThat(pedidoService.buscarPorId(pedido.getId()).orElseThrow().getStatus()).isEqualTo(StatusPedido.CANCELADO);
+		assertThat(disponivel(produtoId)).isEqualTo(3);
+	}
+
+	@Test
+	void reservaConfirmadaNaoExpira() {
+		Long produtoId = criarProduto(1);
+		Pedido pedido = pedidoService.salvar(pedido(produtoId, 1));
+		pedidoService.confirmarPedido(pedido.getId());
+
+		tarefasEstoque.expirarReservas();
+
+		assertThat(pedidoService.buscarPorId(pedido.getId()).orElseThrow().getStatus()).isEqualTo(StatusPedido.CONFIRMADO);
+		assertThat(disponivel(produtoId)).isZero();
+	}
+
+	@Test
+	void reservaConsumidaEBaixadaUmaUnicaVez() throws InterruptedException {
+		Long produtoId = criarProduto(5);
+		Pedido pedido = pedidoService.salvar(pedido(produtoId, 2));
+		pedidoService.confirmarPedido(pedido.getId());
+		pedidoService.atualizarStatus(pedido.getId(), StatusPedido.PREPARANDO);
+		assertThat(reservas(produtoId, "CONSUMIDA")).isEqualTo(1);
+
+		// A tarefa agendada pode estar gravando ao mesmo tempo: a gravação que perde a disputa é desfeita
+		for (int tentativa = 0; reservas(produtoId, "CONSUMIDA") > 0; tentativa++) {
+			if (tentativa == 50) {
+				fail("Reserva consumida não foi baixada");
+			}
+			try {
+				estoqueService.gravarBaixas();
+			} catch (IllegalStateException e) {
+				Thread.sleep(100);
+			}
+		}
+		assertThat(reservas(produtoId, "BAIXADA")).isEqualTo(1);
+		assertThat(estoqueFisico(produtoId)).isEqualTo(3);
+
+		estoqueService.gravarBaixas();
+		assertThat(estoqueFisico(produtoId)).isEqualTo(3);
+		assertThat(disponivel(produtoId)).isEqualTo(3);
+	}
+
+	private Long criarProduto(int estoque) {
+		Produto produto = new Produto();
+		produto.setNome("Produto com estoque " + System.nanoTime());
+		produto.setPreco(new BigDecimal("10.00"));
+		produto.setCategoria("Teste");
+		produto.setRestaurante(restauranteRepository.findById(1L).orElseThrow());
+		produto.setEstoque(estoque);
+		return produtoService.salvar(produto).getId();
+	}
+
+	private static Pedido pedido(Long produtoId, int quantidade) {
+		Cliente cliente = new Cliente();
+		cliente.setId(1L);
+		Restaurante restaurante = new Restaurante();
+		restaurante.setId(1L);
+		Produto produto = new Produto();
+		produto.setId(produtoId);
+		ItemPedido item = new ItemPedido();
+		item.setProduto(produto);
+		item.setQuantidade(quantidade);
+
+		Pedido pedido = new Pedido();
+		pedido.setCliente(cliente);
+		pedido.setRestaurante(restaurante);
+		pedido.setEnderecoEntrega("Rua A, 123 - São Paulo/SP");
+		pedido.setItens(new ArrayList<>(List.of(item)));
+		return pedido;
+	}
+
+	private int disponivel(Long produtoId) {
+		return estoqueService.consultar(produtoId).disponivel();
+	}
+
+	private int reservas(Long produtoId, String status) {
+		return jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM reservas_estoque WHERE produto_id = ? AND status = ?", Integer.class, produtoId, status);
+	}
+
+	private int estoqueFisico(Long produtoId) {
+		return jdbcTemplate.queryForObject(
+			"SELECT quantidade FROM estoques_produtos WHERE produto_id = ?", Integer.class, produtoId);
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.deliverytech.delivery.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+// Gerador de identificadores ordenados no tempo: layout de bits, monotonicidade e codificação base32
+class GeradorSnowflakeTests {
+
+	private static final long EPOCA = GeradorSnowflake.EPOCA.toEpochMilli();
+
+	@Test
+	void layoutDeBitsGuardaInstanteNoESequencia() {
+		GeradorSnowflake gerador = new GeradorSnowflake(37, () -> EPOCA + 12_345);
+
+		long primeiro = gerador.proximo();
+		long segundo = gerador.proximo();
+
+		assertThat(GeradorSnowflake.instante(primeiro)).isEqualTo(GeradorSnowflake.EPOCA.plusMillis(12_345));
+		assertThat(GeradorSnowflake.no(primeiro)).isEqualTo(37);
+		assertThat(primeiro & 0xFFF).isZero();
+		assertThat(segundo).isEqualTo(primeiro + 1);
+		assertThat(GeradorSnowflake.no(segundo)).isEqualTo(37);
+	}
+
+	@Test
+	void relogioVoltandoNaoQuebraAOrdem() {
+		AtomicLong relogio = new AtomicLong(EPOCA + 60_000);
+		GeradorSnowflake gerador = new GeradorSnowflake(1, relogio::get);
+
+		List<Long> identificadores = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			identificadores.add(gerador.proximo());
+		}
+		relogio.addAndGet(-10_000);
+		for (int i = 0; i < 100; i++) {
+			identificadores.add(gerador.proximo());
+		}
+		relogio.addAndGet(20_000);
+		identificadores.add(gerador.proximo());
+
+		assertThat(identificadores).isSortedAccordingTo(Comparator.naturalOrder()).doesNotHaveDuplicates();
+		assertThat(GeradorSnowflake.instante(identificadores.get(identificadores.size() - 1)))
+			.isEqualTo(GeradorSnowflake.EPOCA.plusMillis(70_000));
+	}
+
+	@Test
+	void sequenciaEsgotadaAvancaParaOMilissegundoSeguinte() {
+		GeradorSnowflake gerador = new GeradorSnowflake(5, () -> EPOCA + 1_000);
+
+		long anterior = -1;
+		for (int i = 0; i < 4096; i++) {
+			long identificador = gerador.proximo();
+			assertThat(identificador).isGreaterThan(anterior);
+			assertThat(GeradorSnowflake.instante(identificador)).isEqualTo(GeradorSnowflake.EPOCA.plusMillis(1_000));
+			anterior = identificador;
+		}
+		assertThat(anterior & 0xFFF).isEqualTo(4095);
+
+		long seguinte = gerador.proximo();
+		assertThat(seguinte).isGreaterThan(anterior);
+		assertThat(GeradorSnowflake.instante(seguinte)).isEqualTo(GeradorSnowflake.EPOCA.plusMillis(1_001));
+		assertThat(GeradorSnowflake.no(seguinte)).isEqualTo(5);
+		assertThat(seguinte & 0xFFF).isZero();
+	}
+
+	@Test
+	void ordemDoTextoCodificadoEAOrdemNumerica() {
+		Random aleatorio = new Random(42);
+		List<Long> valores = new ArrayList<>(List.of(0L, 1L, 31L, 32L, Long.MAX_VALUE - 1, Long.MAX_VALUE));
+		for (int i = 0; i < 10_000; i++) {
+			valores.add(aleatorio.nextLong() >>> 1);
+		}
+
+		List<Long> porNumero = valores.stream().sorted().toList();
+		List<Long> porTexto = valores.stream()
+			.sorted(Comparator.comparing(GeradorSnowflake::codificar))
+			.toList();
+
+		assertThat(porTexto).isEqualTo(porNumero);
+		assertThat(valores).allSatisfy(valor ->
+			assertThat(GeradorSnowflake.codificar(valor)).hasSize(GeradorSnowflake.TAMANHO_TEXTO));
+	}
+
+	@Test
+	void decodificarDesfazCodificar() {
+		Random aleatorio = new Random(7);
+		for (int i = 0; i < 10_000; i++) {
+			long valor = aleatorio.nextLong() >>> 1;
+			assertThat(GeradorSnowflake.decodificar(GeradorSnowflake.codificar(valor))).isEqualTo(valor);
+		}
+		assertThat(GeradorSnowflake.decodificar(GeradorSnowflake.codificar(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+		assertThat(GeradorSnowflake.decodificar("0000000000000")).isZero();
+	}
+
+	@Test
+	void decodificarAceitaMinusculasETrocasDeCrockford() {
+		long valor = GeradorSnowflake.decodificar("01234567890AB");
+
+		assertThat(GeradorSnowflake.decodificar("o1234567890ab")).isEqualTo(valor);
+		assertThat(GeradorSnowflake.decodificar("0I234567890AB")).isEqualTo(valor);
+		assertThat(GeradorSnowflake.decodificar("0L234567890AB")).isEqualTo(valor);
+	}
+
+	@Test
+	void decodificarRecusaTextoInvalido() {
+		assertThatThrownBy(() -> GeradorSnowflake.decodificar(null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> GeradorSnowflake.decodificar("0123")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> GeradorSnowflake.decodificar("0123456789ABU")).isInstanceOf(IllegalArgumentException.class);
+		// Primeiro caractere acima de 7 passaria de 64 bits (bit de sinal)
+		assertThatThrownBy(() -> GeradorSnowflake.decodificar("8000000000000")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void noForaDoIntervaloERecusado() {
+		assertThatThrownBy(() -> new GeradorSnowflake(-1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new GeradorSnowflake(GeradorSnowflake.NO_MAXIMO + 1))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.deliverytech.delivery.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+// Índice invertido: distância de edição 1, remoção de acentos, E entre os termos e limpeza das variantes
+class IndiceTextualTests {
+
+	private final IndiceTextual indice = new IndiceTextual();
+
+	@Test
+	void distanciaAteUmAceitaUmaEdicao() {
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pizza")).isTrue();
+		// Troca
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pozza")).isTrue();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pizzo")).isTrue();
+		// Transposição de vizinhos
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pziza")).isTrue();
+		assertThat(IndiceTextual.distanciaAteUm("lasanha", "lasahna")).isTrue();
+		// Inserção e remoção
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pizzza")).isTrue();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "piza")).isTrue();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pizzas")).isTrue();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "izza")).isTrue();
+	}
+
+	@Test
+	void distanciaAteUmRecusaDuasEdicoes() {
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pozzo")).isFalse();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "piz")).isFalse();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "pizzass")).isFalse();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "zipza")).isFalse();
+		assertThat(IndiceTextual.distanciaAteUm("pizza", "ipzaz")).isFalse();
+	}
+
+	@Test
+	void buscaToleraUmErroDeDigitacao() {
+		indice.indexar(1L, Map.of("Pizza Margherita", 3.0f));
+		indice.indexar(2L, Map.of("Lasanha", 3.0f));
+
+		assertThat(indice.buscar("pozza", 10)).containsExactly(1L);
+		assertThat(indice.buscar("pziza", 10)).containsExactly(1L);
+		assertThat(indice.buscar("pizzza", 10)).containsExactly(1L);
+		assertThat(indice.buscar("piza", 10)).containsExactly(1L);
+		assertThat(indice.buscar("lasahna", 10)).containsExactly(2L);
+		assertThat(indice.buscar("pozzo", 10)).isEmpty();
+	}
+
+	@Test
+	void acentosEMaiusculasSaoIgnorados() {
+		assertThat(IndiceTextual.normalizar("Pão de Açúcar")).isEqualTo("pao de acucar");
+		assertThat(IndiceTextual.termos("Pão de Açúcar")).containsExactly("pao", "acucar");
+
+		indice.indexar(1L, Map.of("Pão de Açúcar", 3.0f));
+		indice.indexar(2L, Map.of("Crème Brûlée", 3.0f));
+
+		assertThat(indice.buscar("PAO acucar", 10)).containsExactly(1L);
+		assertThat(indice.buscar("açúcar", 10)).containsExactly(1L);
+		assertThat(indice.buscar("creme brulee", 10)).containsExactly(2L);
+	}
+
+	@Test
+	void todosOsTermosDaConsultaPrecisamCorresponder() {
+		indice.indexar(1L, Map.of("Pizza Margherita", 3.0f));
+		indice.indexar(2L, Map.of("Pizza Calabresa", 3.0f));
+		indice.indexar(3L, Map.of("Esfiha de Calabresa", 3.0f));
+
+		assertThat(indice.buscar("pizza", 10)).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(indice.buscar("pizza calabresa", 10)).containsExactly(2L);
+		assertThat(indice.buscar("calab pizza", 10)).containsExactly(2L);
+		assertThat(indice.buscar("pizza sushi", 10)).isEmpty();
+		// Palavras irrelevantes não entram na consulta
+		assertThat(indice.buscar("esfiha de calabresa", 10)).containsExactly(3L);
+	}
+
+	@Test
+	void pesoDoCampoOrdenaOsResultados() {
+		indice.indexar(1L, Map.of("Lasanha", 3.0f, "Massas", 2.0f));
+		indice.indexar(2L, Map.of("Nhoque", 3.0f, "Massas", 2.0f, "Massa caseira com lasanha", 1.0f));
+
+		assertThat(indice.buscar("lasanha", 10)).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void remocaoDoDocumentoLimpaTermosEVariantes() {
+		indice.indexar(1L, Map.of("Margherita", 3.0f));
+		assertThat(indice.totalVariantes()).isPositive();
+
+		indice.remover(1L);
+
+		assertThat(indice.totalDocumentos()).isZero();
+		assertThat(indice.totalVariantes()).isZero();
+		assertThat(indice.buscar("margherita", 10)).isEmpty();
+		assertThat(indice.buscar("margerita", 10)).isEmpty();
+	}
+
+	@Test
+	void reindexacaoRemoveAsVariantesDosTermosQueSairam() {
+		IndiceTextual somenteSushi = new IndiceTextual();
+		somenteSushi.indexar(1L, Map.of("Sushi", 3.0f));
+
+		indice.indexar(1L, Map.of("Pizza", 3.0f));
+		indice.indexar(1L, Map.of("Sushi", 3.0f));
+
+		assertThat(indice.totalVariantes()).isEqualTo(somenteSushi.totalVariantes());
+		assertThat(indice.buscar("piza", 10)).isEmpty();
+		assertThat(indice.buscar("sushy", 10)).containsExactly(1L);
+	}
+
+	@Test
+	void termoCompartilhadoMantemAsVariantesEnquantoHouverDocumento() {
+		indice.indexar(1L, Map.of("Pizza Margherita", 3.0f));
+		indice.indexar(2L, Map.of("Pizza Calabresa", 3.0f));
+
+		indice.remover(1L);
+
+		assertThat(indice.buscar("piza", 10)).containsExactly(2L);
+		assertThat(indice.buscar("margerita", 10)).isEmpty();
+	}
+
+}
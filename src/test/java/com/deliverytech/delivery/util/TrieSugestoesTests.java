@@ -0,0 +1,118 @@
+package com.deliverytech.delivery.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.deliverytech.delivery.dto.Sugestao;
+import com.deliverytech.delivery.enums.TipoSugestao;
+
+// Trie compacta de sugestões: divisão e fusão de arestas, prefixos no meio de uma aresta e ordem das k melhores
+class TrieSugestoesTests {
+
+	private final TrieSugestoes trie = new TrieSugestoes();
+
+	@Test
+	void insercaoDivideArestaNoTrechoComum() {
+		trie.ajustar("pizza", "Pizza", TipoSugestao.CATEGORIA, 10);
+		trie.ajustar("pita", "Pita", TipoSugestao.PRODUTO, 5);
+
+		// "pizza" e "pita" passam a dividir o nó "pi"
+		assertThat(textos(trie.sugerir("pi", 10))).containsExactly("Pizza", "Pita");
+		assertThat(textos(trie.sugerir("piz", 10))).containsExactly("Pizza");
+		assertThat(textos(trie.sugerir("pit", 10))).containsExactly("Pita");
+		assertThat(textos(trie.sugerir("pizza", 10))).containsExactly("Pizza");
+		assertThat(trie.sugerir("pix", 10)).isEmpty();
+		assertThat(trie.totalSugestoes()).isEqualTo(2);
+	}
+
+	@Test
+	void chaveQueEPrefixoDeOutraDivideAArestaSemPerderSugestoes() {
+		trie.ajustar("pizzaria", "Pizzaria", TipoSugestao.RESTAURANTE, 3);
+		trie.ajustar("pizza", "Pizza", TipoSugestao.CATEGORIA, 8);
+
+		assertThat(textos(trie.sugerir("pizz", 10))).containsExactly("Pizza", "Pizzaria");
+		assertThat(textos(trie.sugerir("pizzar", 10))).containsExactly("Pizzaria");
+	}
+
+	@Test
+	void prefixoTerminandoNoMeioDaArestaEncontraASubarvore() {
+		trie.ajustar("hamburguer", "Hambúrguer", TipoSugestao.PRODUTO, 4);
+		trie.ajustar("hamburgueria", "Hamburgueria", TipoSugestao.RESTAURANTE, 6);
+
+		assertThat(textos(trie.sugerir("h", 10))).containsExactly("Hamburgueria", "Hambúrguer");
+		assertThat(textos(trie.sugerir("hambu", 10))).containsExactly("Hamburgueria", "Hambúrguer");
+		assertThat(textos(trie.sugerir("hamburgueri", 10))).containsExactly("Hamburgueria");
+		assertThat(trie.sugerir("hambx", 10)).isEmpty();
+		assertThat(trie.sugerir("hamburgueriaz", 10)).isEmpty();
+	}
+
+	@Test
+	void remocaoAteZeroFundeONoComOFilhoUnico() {
+		trie.ajustar("pizza", "Pizza", TipoSugestao.CATEGORIA, 10);
+		trie.ajustar("pizzaria", "Pizzaria", TipoSugestao.RESTAURANTE, 3);
+		trie.ajustar("pita", "Pita", TipoSugestao.PRODUTO, 5);
+
+		trie.ajustar("pita", "Pita", TipoSugestao.PRODUTO, -5);
+
+		assertThat(trie.totalSugestoes()).isEqualTo(2);
+		assertThat(trie.sugerir("pit", 10)).isEmpty();
+		assertThat(textos(trie.sugerir("pi", 10))).containsExactly("Pizza", "Pizzaria");
+		assertThat(textos(trie.sugerir("pizzar", 10))).containsExactly("Pizzaria");
+
+		// Depois da fusão, "pizza" sai e "pizzaria" fica sozinha no ramo
+		trie.ajustar("pizza", "Pizza", TipoSugestao.CATEGORIA, -10);
+		assertThat(textos(trie.sugerir("p", 10))).containsExactly("Pizzaria");
+		assertThat(textos(trie.sugerir("pizzari", 10))).containsExactly("Pizzaria");
+
+		// A trie continua aceitando chaves que voltam a dividir o ramo fundido
+		trie.ajustar("pita", "Pita", TipoSugestao.PRODUTO, 1);
+		assertThat(textos(trie.sugerir("pi", 10))).containsExactly("Pizzaria", "Pita");
+		assertThat(trie.totalSugestoes()).isEqualTo(2);
+	}
+
+	@Test
+	void remocaoDaUltimaSugestaoEsvaziaATrie() {
+		trie.ajustar("sushi", "Sushi", TipoSugestao.CATEGORIA, 2);
+		trie.ajustar("sushi", "Sushi", TipoSugestao.CATEGORIA, -2);
+
+		assertThat(trie.totalSugestoes()).isZero();
+		assertThat(trie.sugerir("s", 10)).isEmpty();
+	}
+
+	@Test
+	void melhoresDeRamosDiferentesSaemEmOrdemDePopularidade() {
+		trie.ajustar("pizza", "Pizza", TipoSugestao.CATEGORIA, 50);
+		trie.ajustar("pastel", "Pastel", TipoSugestao.PRODUTO, 70);
+		trie.ajustar("picanha", "Picanha", TipoSugestao.PRODUTO, 20);
+		trie.ajustar("pudim", "Pudim", TipoSugestao.PRODUTO, 60);
+		trie.ajustar("pizzaria", "Pizzaria", TipoSugestao.RESTAURANTE, 40);
+
+		assertThat(textos(trie.sugerir("p", 10)))
+			.containsExactly("Pastel", "Pudim", "Pizza", "Pizzaria", "Picanha");
+		assertThat(textos(trie.sugerir("p", 3))).containsExactly("Pastel", "Pudim", "Pizza");
+
+		// Reduzir a mais popular recalcula o melhor de cada nó do caminho
+		trie.ajustar("pastel", "Pastel", TipoSugestao.PRODUTO, -65);
+		assertThat(textos(trie.sugerir("p", 3))).containsExactly("Pudim", "Pizza", "Pizzaria");
+	}
+
+	@Test
+	void mesmaChaveComTiposDiferentesGeraSugestoesSeparadas() {
+		trie.ajustar("pizza", "Pizza", TipoSugestao.CATEGORIA, 5);
+		trie.ajustar("pizza", "Pizza", TipoSugestao.PRODUTO, 9);
+
+		List<Sugestao> sugestoes = trie.sugerir("pizza", 10);
+
+		assertThat(sugestoes).extracting(Sugestao::tipo)
+			.containsExactly(TipoSugestao.PRODUTO, TipoSugestao.CATEGORIA);
+		assertThat(sugestoes).extracting(Sugestao::popularidade).containsExactly(9L, 5L);
+	}
+
+	private static List<String> textos(List<Sugestao> sugestoes) {
+		return sugestoes.stream().map(Sugestao::texto).toList();
+	}
+
+}